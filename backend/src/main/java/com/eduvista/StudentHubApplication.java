@@ -5,10 +5,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {RedissonAutoConfigurationV2.class})
 @EnableCaching
 @EnableAsync
+@EnableScheduling
 public class StudentHubApplication {
     public static void main(String[] args) {
         SpringApplication.run(StudentHubApplication.class, args);
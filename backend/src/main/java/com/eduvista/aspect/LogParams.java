@@ -0,0 +1,27 @@
+package com.eduvista.aspect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 指定操作日志记录 Controller 方法的哪些参数。
+ *
+ * include 为参数名或“参数名.字段”（如 "student.studentNo"；Map 参数按 key 取值），只记录列出的部分；
+ * 未标注时只记录简单类型参数（字符串、数字、日期、枚举等），对象参数只记录类型名。
+ * 文件、流、byte[]、Servlet 请求/响应以及名称含 password、token 等的参数和字段始终不记录。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LogParams {
+
+    String[] include() default {};
+
+    /**
+     * 参数字符串的最大长度（不超过 operation_logs.params 列长 1000）
+     */
+    int maxLength() default 1000;
+}
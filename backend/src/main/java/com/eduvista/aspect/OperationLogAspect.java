@@ -1,8 +1,8 @@
 package com.eduvista.aspect;
 
 import com.eduvista.entity.OperationLog;
-import com.eduvista.repository.OperationLogRepository;
-import com.eduvista.service.RedisCacheService;
+import com.eduvista.service.OperationLogWriter;
+import com.eduvista.service.OperationMetricsService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,12 +10,13 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Arrays;
+import java.time.LocalDateTime;
 
 @Aspect
 @Component
@@ -23,8 +24,9 @@ import java.util.Arrays;
 @RequiredArgsConstructor
 public class OperationLogAspect {
     
-    private final OperationLogRepository operationLogRepository;
-    private final RedisCacheService redisCacheService;
+    private final OperationLogWriter operationLogWriter;
+    private final OperationMetricsService operationMetricsService;
+    private final OperationParamCapture paramCapture = new OperationParamCapture();
     
     @Pointcut("execution(* com.eduvista.controller..*.*(..))")
     public void controllerPointcut() {}
@@ -47,35 +49,37 @@ public class OperationLogAspect {
         String method = request.getMethod();
         String url = request.getRequestURI();
         String ip = getClientIp(request);
-        String params = Arrays.toString(joinPoint.getArgs());
         
         Object result = null;
+        boolean failed = false;
         
         try {
             result = joinPoint.proceed();
-        } catch (Exception e) {
+        } catch (Throwable e) {
+            failed = true;
             throw e;
         } finally {
             long executionTime = System.currentTimeMillis() - startTime;
             
+            // 目标方法执行完再按 @LogParams 取参数，有长度上限，不序列化文件和敏感参数
+            String params = paramCapture.capture((MethodSignature) joinPoint.getSignature(), joinPoint.getArgs());
+            
             OperationLog operationLog = OperationLog.builder()
                 .username(username)
                 .operation(operation)
                 .method(method)
                 .url(url)
                 .ip(ip)
-                .params(params.length() > 1000 ? params.substring(0, 1000) : params)
+                .params(params)
                 .executionTime(executionTime)
+                .createTime(LocalDateTime.now())
                 .build();
             
-            operationLogRepository.save(operationLog);
+            // 异步批量写入，请求不等待数据库
+            operationLogWriter.submit(operationLog);
             
-            try {
-                redisCacheService.incrementOperationCount(operation);
-            } catch (Exception e) {
-                // Redis 不可用时，静默失败，不影响主流程
-                log.debug("Redis 操作失败，已跳过: {}", e.getMessage());
-            }
+            // 分钟/小时汇总桶（次数、失败数、执行时间），供仪表盘按时间范围查询
+            operationMetricsService.record(operation, executionTime, failed);
         }
         
         return result;
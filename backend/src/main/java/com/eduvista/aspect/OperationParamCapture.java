@@ -0,0 +1,187 @@
+package com.eduvista.aspect;
+
+import com.eduvista.util.BoundedAppender;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.beans.PropertyDescriptor;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 操作日志的参数记录（规则见 {@link LogParams}）。
+ * 每个方法第一次调用时解析出要记录的参数/字段并缓存，之后只按计划取值，写入有长度上限的 BoundedAppender
+ */
+@Slf4j
+class OperationParamCapture {
+
+    private static final int MAX_LENGTH = 1000;
+
+    private static final Pattern SENSITIVE_NAME =
+            Pattern.compile("password|passwd|pwd|token|secret|credential", Pattern.CASE_INSENSITIVE);
+
+    private static final List<Class<?>> SKIPPED_TYPES = List.of(
+            MultipartFile.class, MultipartFile[].class, byte[].class,
+            InputStream.class, Reader.class, ServletRequest.class, ServletResponse.class);
+
+    /**
+     * @param field 为 null 时记录整个参数
+     */
+    private record Entry(int index, String label, String field) {
+    }
+
+    private record Plan(List<Entry> entries, int maxLength) {
+    }
+
+    private final Map<Method, Plan> plans = new ConcurrentHashMap<>();
+
+    String capture(MethodSignature signature, Object[] args) {
+        Plan plan = plans.computeIfAbsent(signature.getMethod(), method -> plan(method, signature.getParameterNames()));
+        if (plan.entries().isEmpty()) {
+            return "";
+        }
+        BoundedAppender out = new BoundedAppender(plan.maxLength());
+        boolean first = true;
+        for (Entry entry : plan.entries()) {
+            if (out.isFull()) {
+                break;
+            }
+            Object value = args[entry.index()];
+            if (entry.field() != null && value != null && !isSkippedValue(value)) {
+                value = readField(value, entry.field());
+            }
+            // 声明类型是 Object 等宽泛类型时，按实际类型再检查一次
+            if (isSkippedValue(value)) {
+                continue;
+            }
+            if (!first) {
+                out.append(", ");
+            }
+            first = false;
+            out.append(entry.label()).append('=');
+            render(value, out);
+        }
+        return out.toString();
+    }
+
+    private Plan plan(Method method, String[] parameterNames) {
+        Class<?>[] types = method.getParameterTypes();
+        String[] names = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            names[i] = parameterNames != null && i < parameterNames.length ? parameterNames[i] : "arg" + i;
+        }
+
+        LogParams logParams = AnnotationUtils.findAnnotation(method, LogParams.class);
+        int maxLength = logParams == null ? MAX_LENGTH : Math.max(16, Math.min(logParams.maxLength(), MAX_LENGTH));
+        List<Entry> entries = new ArrayList<>();
+
+        if (logParams == null || logParams.include().length == 0) {
+            for (int i = 0; i < types.length; i++) {
+                if (!isSensitive(names[i]) && !isSkippedType(types[i])) {
+                    entries.add(new Entry(i, names[i], null));
+                }
+            }
+            return new Plan(List.copyOf(entries), maxLength);
+        }
+
+        for (String path : logParams.include()) {
+            int dot = path.indexOf('.');
+            String parameter = dot < 0 ? path : path.substring(0, dot);
+            String field = dot < 0 ? null : path.substring(dot + 1);
+            int index = indexOf(names, parameter);
+            if (index < 0) {
+                log.warn("@LogParams 引用了不存在的参数: {}.{} -> {}",
+                        method.getDeclaringClass().getSimpleName(), method.getName(), path);
+                continue;
+            }
+            if (isSensitive(parameter) || isSkippedType(types[index]) || (field != null && isSensitive(field))) {
+                continue;
+            }
+            entries.add(new Entry(index, path, field));
+        }
+        return new Plan(List.copyOf(entries), maxLength);
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSensitive(String name) {
+        return SENSITIVE_NAME.matcher(name).find();
+    }
+
+    private static boolean isSkippedType(Class<?> type) {
+        for (Class<?> skipped : SKIPPED_TYPES) {
+            if (skipped.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSkippedValue(Object value) {
+        return value != null && isSkippedType(value.getClass());
+    }
+
+    private static Object readField(Object target, String field) {
+        if (target instanceof Map<?, ?> map) {
+            return map.get(field);
+        }
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(target.getClass(), field);
+        if (descriptor == null || descriptor.getReadMethod() == null) {
+            return null;
+        }
+        try {
+            return descriptor.getReadMethod().invoke(target);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 简单类型输出值，其余只输出类型名（集合、数组附带元素个数），不调用对象的 toString
+     */
+    private static void render(Object value, BoundedAppender out) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof CharSequence text) {
+            out.append(text);
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum<?> || value instanceof Temporal || value instanceof Date
+                || value instanceof UUID) {
+            out.append(value.toString());
+        } else if (value instanceof Collection<?> collection) {
+            out.append('<').append(value.getClass().getSimpleName()).append('[')
+                    .append(Integer.toString(collection.size())).append("]>");
+        } else if (value instanceof Map<?, ?> map) {
+            out.append('<').append(value.getClass().getSimpleName()).append('[')
+                    .append(Integer.toString(map.size())).append("]>");
+        } else if (value.getClass().isArray()) {
+            out.append('<').append(value.getClass().getComponentType().getSimpleName()).append('[')
+                    .append(Integer.toString(Array.getLength(value))).append("]>");
+        } else {
+            out.append('<').append(value.getClass().getSimpleName()).append('>');
+        }
+    }
+}
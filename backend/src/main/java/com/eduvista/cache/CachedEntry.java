@@ -0,0 +1,21 @@
+package com.eduvista.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 带写入时间的缓存值包装，用于判断软过期（提前刷新）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedEntry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Object value;
+    /** 写入时间（毫秒时间戳） */
+    private long createdAt;
+}
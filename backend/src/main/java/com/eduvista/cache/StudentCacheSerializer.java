@@ -0,0 +1,202 @@
+package com.eduvista.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 学生列表缓存（CachedEntry&lt;StudentIdPage&gt;）的紧凑二进制编码。
+ *
+ * 二进制格式：[MAGIC][版本号][类型][负载]，整数使用 varint，ID 列表写差值，
+ * 不再写入 Jackson 默认类型的 @class 元数据。
+ * 其他类型回退为 JSON（与旧版本写入的数据格式一致），读取时按首字节区分：
+ * JSON 不可能以 MAGIC 字节开头，因此旧数据仍可读取；遇到不认识的版本号视为缓存未命中。
+ *
+ * 读取始终支持两种格式，写入二进制由 binaryWrites（cache.binary-format.write-enabled）控制：
+ * 只会写 JSON 的旧版本节点无法读取二进制值，滚动发布时先以 false 部署到所有节点，再打开开关。
+ */
+@Slf4j
+public class StudentCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB7;
+    static final byte FORMAT_VERSION = 1;
+
+    // 1、2 曾用于整页缓存的 StudentDTO / PageResponse，已不再写入也不再解码；
+    // 残留的旧值按未知类型当作未命中（StudentPageCache 本来也把非 StudentIdPage 的值视为未命中），不要复用这两个编号
+    private static final byte TYPE_ENTRY = 3;
+    private static final byte TYPE_ID_SLICE = 5;
+
+    private final RedisSerializer<Object> jsonSerializer;
+    private final boolean binaryWrites;
+
+    public StudentCacheSerializer(RedisSerializer<Object> jsonSerializer, boolean binaryWrites) {
+        this.jsonSerializer = jsonSerializer;
+        this.binaryWrites = binaryWrites;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!binaryWrites) {
+            return jsonSerializer.serialize(value);
+        }
+        if (value instanceof StudentIdPage page) {
+            Writer writer = header(TYPE_ID_SLICE);
+            writer.writeVarLong(page.getSize());
+            writer.writeVarLong(page.getNumber());
+            writer.writeByte(page.isHasNext() ? (byte) 1 : (byte) 0);
+            writeIds(writer, page.getIds());
+            return writer.toByteArray();
+        }
+        if (value instanceof CachedEntry entry) {
+            Writer writer = header(TYPE_ENTRY);
+            writer.writeVarLong(entry.getCreatedAt());
+            writer.writeBytes(serialize(entry.getValue()));
+            return writer.toByteArray();
+        }
+        return jsonSerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return jsonSerializer.deserialize(bytes);
+        }
+        try {
+            Reader reader = new Reader(bytes);
+            reader.readByte();
+            byte version = reader.readByte();
+            if (version != FORMAT_VERSION) {
+                // 滚动发布期间遇到新版本写入的数据，当作未命中，由调用方回源
+                log.debug("未知的缓存格式版本: {}", version);
+                return null;
+            }
+            byte type = reader.readByte();
+            switch (type) {
+                case TYPE_ID_SLICE: {
+                    int size = (int) reader.readVarLong();
+                    int number = (int) reader.readVarLong();
+                    boolean hasNext = reader.readByte() != 0;
+                    return new StudentIdPage(readIds(reader), size, number, hasNext);
+                }
+                case TYPE_ENTRY: {
+                    long createdAt = reader.readVarLong();
+                    Object value = deserialize(reader.readBytes());
+                    return value != null ? new CachedEntry(value, createdAt) : null;
+                }
+                default:
+                    log.debug("未知的缓存值类型: {}", type);
+                    return null;
+            }
+        } catch (RuntimeException e) {
+            log.warn("缓存值解码失败，按未命中处理: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Writer header(byte type) {
+        Writer writer = new Writer();
+        writer.writeByte(MAGIC);
+        writer.writeByte(FORMAT_VERSION);
+        writer.writeByte(type);
+        return writer;
+    }
+
+    // ---- ID 列表：按排序相邻，写差值更紧凑 ----
+
+    private static void writeIds(Writer writer, List<Long> ids) {
+        writer.writeVarLong(ids.size());
+        long previous = 0;
+        for (Long id : ids) {
+            writer.writeVarLong(id - previous);
+            previous = id;
+        }
+    }
+
+    private static List<Long> readIds(Reader reader) {
+        int count = (int) reader.readVarLong();
+        List<Long> ids = new ArrayList<>(count);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += reader.readVarLong();
+            ids.add(previous);
+        }
+        return ids;
+    }
+
+    // ---- 底层读写：ZigZag varint + 长度前缀字节数组 ----
+
+    static final class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+        void writeByte(byte b) {
+            out.write(b);
+        }
+
+        void writeVarLong(long value) {
+            long v = (value << 1) ^ (value >> 63);
+            while ((v & ~0x7FL) != 0) {
+                out.write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            out.write((int) v);
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    static final class Reader {
+        private final byte[] bytes;
+        private int pos;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte readByte() {
+            if (pos >= bytes.length) {
+                throw new IllegalStateException("缓存数据被截断");
+            }
+            return bytes[pos++];
+        }
+
+        long readVarLong() {
+            long v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (shift > 63) {
+                    throw new IllegalStateException("varint 过长");
+                }
+                b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        byte[] readBytes() {
+            int length = (int) readVarLong();
+            if (length < 0 || pos + length > bytes.length) {
+                throw new IllegalStateException("字节数组长度非法");
+            }
+            byte[] value = Arrays.copyOfRange(bytes, pos, pos + length);
+            pos += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.eduvista.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 列表/搜索缓存条目：只保存有序的学生 ID 和分页位置，学生详情从学生 Hash 批量读取后组装。
+ * 不保存总数：总数由 StudentCountCache 提供，查询 ID 时不再执行 COUNT
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentIdPage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<Long> ids;
+    private int size;
+    private int number;
+    private boolean hasNext;
+
+    public static StudentIdPage of(Slice<Long> slice) {
+        return new StudentIdPage(
+                new ArrayList<>(slice.getContent()),
+                slice.getSize(),
+                slice.getNumber(),
+                slice.hasNext()
+        );
+    }
+}
@@ -0,0 +1,163 @@
+package com.eduvista.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 两级缓存：L1 为进程内 Caffeine（有界 + 短 TTL），L2 为 Redis。
+ * 读：先查 L1，未命中再查 L2 并回填 L1。
+ * 写/删：先更新 L2，再更新本地 L1，最后通过 Redis Pub/Sub 通知其他节点清理各自的 L1。
+ * 回填 L1 前后比较失效计数：读 L2 期间发生过失效（本地删除或收到失效消息）时不保留回填的值，避免旧值在 L1 中留到 TTL 过期。
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache;
+    private final Cache remoteCache;
+    private final TwoLevelCacheManager cacheManager;
+    /** 每次 L1 失效（在 L2 更新之后）加一 */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache,
+                         Cache remoteCache,
+                         TwoLevelCacheManager cacheManager) {
+        // L2 已禁用 null 值缓存，这里保持一致
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        long seen = invalidations.get();
+        ValueWrapper wrapper = remoteCache.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        value = wrapper.get();
+        fillLocal(key, value, seen);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) value;
+        }
+        long seen = invalidations.get();
+        T loaded = remoteCache.get(key, valueLoader);
+        if (loaded != null) {
+            fillLocal(key, loaded, seen);
+        }
+        return loaded;
+    }
+
+    /**
+     * 先写入再检查：检查之前发生的失效在这里撤销回填，之后发生的失效会直接删除这个值
+     */
+    private void fillLocal(Object key, Object value, long seen) {
+        localCache.put(key, value);
+        if (invalidations.get() != seen) {
+            localCache.invalidate(key);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        remoteCache.put(key, value);
+        invalidations.incrementAndGet();
+        localCache.put(key, value);
+        cacheManager.publishEvict(name, key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        invalidateLocal(key);
+        cacheManager.publishEvict(name, key);
+    }
+
+    /**
+     * 批量删除：L2 一条 DEL 命令，其他节点一条失效消息（而不是每个 key 各一次 DEL + PUBLISH）
+     */
+    public void evictAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (remoteCache instanceof RedisCache redisCache) {
+            String prefix = redisCache.getCacheConfiguration().usePrefix()
+                    ? redisCache.getCacheConfiguration().getKeyPrefixFor(name) : "";
+            cacheManager.deleteRemote(keys.stream().map(key -> prefix + key).toList());
+        } else {
+            keys.forEach(remoteCache::evict);
+        }
+        evictLocal(List.copyOf(keys));
+        cacheManager.publishEvictAll(name, keys);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remoteCache.evictIfPresent(key);
+        invalidateLocal(key);
+        cacheManager.publishEvict(name, key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        clearLocal();
+        cacheManager.publishClear(name);
+    }
+
+    /**
+     * 仅清理本节点 L1（收到其他节点的失效通知时调用）
+     */
+    void evictLocal(Object key) {
+        invalidateLocal(key);
+    }
+
+    void evictLocal(List<String> keys) {
+        invalidations.incrementAndGet();
+        localCache.invalidateAll(keys);
+    }
+
+    void clearLocal() {
+        invalidations.incrementAndGet();
+        localCache.invalidateAll();
+    }
+
+    private void invalidateLocal(Object key) {
+        invalidations.incrementAndGet();
+        localCache.invalidate(key);
+    }
+}
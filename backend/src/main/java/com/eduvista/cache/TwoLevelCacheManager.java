@@ -0,0 +1,126 @@
+package com.eduvista.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 两级缓存管理器：在 RedisCacheManager 前面加一层进程内 L1。
+ * 同时作为 Redis Pub/Sub 监听器，接收其他节点广播的失效消息。
+ *
+ * 消息格式：{nodeId}|E|{cacheName}|{key}、{nodeId}|M|{cacheName}|{key1}\u001F{key2}... 或 {nodeId}|C|{cacheName}
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private static final String EVICT = "E";
+    private static final String EVICT_MULTI = "M";
+    private static final String CLEAR = "C";
+    /** 批量失效消息中 key 之间的分隔符（ASCII 单元分隔符，不会出现在缓存 key 中） */
+    private static final String KEY_SEPARATOR = "\u001F";
+
+    /** 本节点标识，用于忽略自己发出的失效消息 */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String channel;
+    private final long localMaximumSize;
+    private final Duration localExpireAfterWrite;
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                StringRedisTemplate stringRedisTemplate,
+                                String channel,
+                                long localMaximumSize,
+                                Duration localExpireAfterWrite) {
+        this.redisCacheManager = redisCacheManager;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.channel = channel;
+        this.localMaximumSize = localMaximumSize;
+        this.localExpireAfterWrite = localExpireAfterWrite;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = redisCacheManager.getCache(name);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localExpireAfterWrite)
+                .build();
+        return new TwoLevelCache(name, local, remote, this);
+    }
+
+    void publishEvict(String cacheName, Object key) {
+        publish(nodeId + "|" + EVICT + "|" + cacheName + "|" + key);
+    }
+
+    void publishEvictAll(String cacheName, Collection<String> keys) {
+        publish(nodeId + "|" + EVICT_MULTI + "|" + cacheName + "|" + String.join(KEY_SEPARATOR, keys));
+    }
+
+    /**
+     * 一条 DEL 命令删除多个 L2 key
+     */
+    void deleteRemote(List<String> redisKeys) {
+        stringRedisTemplate.delete(redisKeys);
+    }
+
+    void publishClear(String cacheName) {
+        publish(nodeId + "|" + CLEAR + "|" + cacheName);
+    }
+
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, message);
+        } catch (Exception e) {
+            // 广播失败时其他节点的 L1 只能依赖本地 TTL 过期
+            log.warn("缓存失效消息广播失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 4);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else if (EVICT.equals(parts[1]) && parts.length == 4) {
+            cache.evictLocal(parts[3]);
+        } else if (EVICT_MULTI.equals(parts[1]) && parts.length == 4) {
+            cache.evictLocal(Arrays.asList(parts[3].split(KEY_SEPARATOR)));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.eduvista.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 缓存 TTL 配置（application.yml 中的 cache.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache")
+public class CacheTtlProperties {
+
+    /** 未单独配置的缓存使用的默认 TTL */
+    private Duration defaultTtl = Duration.ofMinutes(30);
+
+    /** 按缓存名配置的 TTL */
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    /**
+     * 软过期比例：条目存活超过 TTL × 该比例后，每次读取按逐渐增大的概率触发后台刷新，
+     * 调用方仍拿到当前值，热点条目在硬过期前就已被替换
+     */
+    private double refreshAheadRatio = 0.8;
+
+    public Duration ttlFor(String cacheName) {
+        return ttl.getOrDefault(cacheName, defaultTtl);
+    }
+}
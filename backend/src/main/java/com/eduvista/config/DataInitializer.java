@@ -8,8 +8,6 @@ import com.eduvista.repository.ClassRepository;
 import com.eduvista.repository.RoleRepository;
 import com.eduvista.repository.StudentRepository;
 import com.eduvista.repository.UserRepository;
-import com.eduvista.service.RedisCacheService;
-import com.eduvista.service.StudentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -29,8 +27,6 @@ public class DataInitializer implements CommandLineRunner {
     private final PasswordEncoder passwordEncoder;
     private final ClassRepository classRepository;
     private final StudentRepository studentRepository;
-    private final StudentService studentService;
-    private final RedisCacheService redisCacheService;
     
     @Override
     public void run(String... args) {
@@ -38,7 +34,6 @@ public class DataInitializer implements CommandLineRunner {
         initializeAdmin();
         initializeClasses();
         initializeStudents();
-        warmupCache();
         log.info("数据初始化完成");
     }
     
@@ -132,21 +127,4 @@ public class DataInitializer implements CommandLineRunner {
             log.info("学生数据初始化完成");
         }
     }
-    
-    private void warmupCache() {
-        try {
-            log.info("开始预热Redis缓存...");
-            studentService.findAll().forEach(student -> {
-                try {
-                    redisCacheService.cacheStudentHash(student);
-                } catch (Exception e) {
-                    log.warn("缓存学生数据失败: {}", e.getMessage());
-                }
-            });
-            log.info("Redis缓存预热完成");
-        } catch (Exception e) {
-            log.warn("Redis缓存预热失败，应用将继续运行: {}", e.getMessage());
-        }
-    }
-}
-
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.eduvista.config;
+
+import com.eduvista.service.LatencyMetricsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * 记录每个 Controller 方法的请求延迟（System.nanoTime），按方法 + 最终状态码写入延迟直方图。
+ * 流式响应（StreamingResponseBody）会经过一次异步分派，开始时间只在第一次进入时记录，统计的是完整耗时
+ */
+@Component
+@RequiredArgsConstructor
+public class LatencyInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = LatencyInterceptor.class.getName() + ".start";
+
+    private final LatencyMetricsService latencyMetricsService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        int status = response.getStatus();
+        if (ex != null && status < 400) {
+            status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        }
+        String name = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        latencyMetricsService.record(name, status, System.nanoTime() - start);
+    }
+}
@@ -1,5 +1,7 @@
 package com.eduvista.config;
 
+import com.eduvista.cache.StudentCacheSerializer;
+import com.eduvista.cache.TwoLevelCacheManager;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
@@ -12,7 +14,6 @@ import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
-import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,6 +23,9 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -31,7 +35,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.data.domain.PageImpl;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import java.time.Duration;
 
@@ -49,6 +55,18 @@ public class RedisConfig {
     @Value("${spring.data.redis.port}")
     private int redisPort;
 
+    @Value("${cache.local.maximum-size:1000}")
+    private long localMaximumSize;
+
+    @Value("${cache.local.expire-after-write:60s}")
+    private Duration localExpireAfterWrite;
+
+    @Value("${cache.invalidation-channel:cache:invalidate}")
+    private String invalidationChannel;
+
+    @Value("${cache.binary-format.write-enabled:false}")
+    private boolean binaryFormatWrites;
+
     /**
      * 核心修改：创建一个支持 Java8 日期序列化的 Jackson 序列化器
      */
@@ -107,20 +125,52 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * 两级缓存：L1 进程内 Caffeine + L2 Redis，L1 失效通过 Redis Pub/Sub 广播到所有节点
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        GenericJackson2JsonRedisSerializer serializer = createJacksonSerializer();
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             CacheTtlProperties cacheTtlProperties) {
+        // 学生列表缓存条目（CachedEntry<StudentIdPage>）走紧凑二进制编码（需开启 binaryFormatWrites），其余类型回退为 JSON
+        StudentCacheSerializer serializer = new StudentCacheSerializer(createJacksonSerializer(), binaryFormatWrites);
 
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMinutes(30))
+            .entryTtl(cacheTtlProperties.getDefaultTtl())
             .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
             // 使用自定义的序列化器
             .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
             .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        // 按缓存名单独配置的 TTL（cache.ttl.*）
+        Map<String, RedisCacheConfiguration> perCacheConfig = new HashMap<>();
+        cacheTtlProperties.getTtl().forEach((name, ttl) -> perCacheConfig.put(name, config.entryTtl(ttl)));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(config)
+            .withInitialCacheConfigurations(perCacheConfig)
             .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(
+                redisCacheManager,
+                new StringRedisTemplate(connectionFactory),
+                invalidationChannel,
+                localMaximumSize,
+                localExpireAfterWrite
+        );
+    }
+
+    /**
+     * Redis Pub/Sub 监听容器：订阅缓存失效频道，收到其他节点的消息后清理本地 L1。
+     * 其他组件（如学生变更事件）可自行向该容器注册监听
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        return container;
     }
 
     @Bean
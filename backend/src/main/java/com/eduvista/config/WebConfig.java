@@ -1,17 +1,27 @@
 package com.eduvista.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
     
+    private final LatencyInterceptor latencyInterceptor;
+    
     @Value("${file.upload.path}")
     private String uploadPath;
     
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(latencyInterceptor);
+    }
+    
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/uploads/**")
@@ -1,5 +1,6 @@
 package com.eduvista.controller;
 
+import com.eduvista.aspect.LogParams;
 import com.eduvista.service.AuthService;
 import com.eduvista.util.CommonResponse;
 import lombok.RequiredArgsConstructor;
@@ -15,11 +16,13 @@ public class AuthController {
     private final AuthService authService;
     
     @PostMapping("/login")
+    @LogParams(include = "request.username")
     public CommonResponse<Map<String, Object>> login(@RequestBody Map<String, String> request) {
         return authService.login(request.get("username"), request.get("password"));
     }
     
     @PostMapping("/register")
+    @LogParams(include = {"request.username", "request.email"})
     public CommonResponse<Map<String, Object>> register(@RequestBody Map<String, String> request) {
         return authService.register(
             request.get("username"),
@@ -1,7 +1,9 @@
 package com.eduvista.controller;
 
+import com.eduvista.dto.ClassSummary;
 import com.eduvista.entity.Class;
 import com.eduvista.repository.ClassRepository;
+import com.eduvista.service.ClassService;
 import com.eduvista.util.CommonResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,10 +18,19 @@ import java.util.List;
 public class ClassController {
 
     private final ClassRepository classRepository;
+    private final ClassService classService;
 
     @GetMapping("/list")
     public CommonResponse<List<Class>> getClassList() {
         List<Class> classes = classRepository.findAll();
         return CommonResponse.success(classes);
     }
-}
\ No newline at end of file
+
+    /**
+     * 班级摘要（id、班号、班名、年级、专业、人数），供下拉框使用，不序列化学生集合
+     */
+    @GetMapping("/summary")
+    public CommonResponse<List<ClassSummary>> getClassSummaries() {
+        return CommonResponse.success(classService.findSummaries());
+    }
+}
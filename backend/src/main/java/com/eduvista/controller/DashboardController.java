@@ -1,51 +1,84 @@
 package com.eduvista.controller;
 
-import com.eduvista.repository.OperationLogRepository;
-import com.eduvista.service.RedisCacheService;
+import com.eduvista.dto.OperationStat;
+import com.eduvista.service.OperationMetricsService;
+import com.eduvista.service.OperationMetricsService.Granularity;
 import com.eduvista.util.CommonResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 
 @RestController
 @RequestMapping("/dashboard")
 @RequiredArgsConstructor
 public class DashboardController {
-    
-    private final RedisCacheService redisCacheService;
-    private final OperationLogRepository operationLogRepository;
-    
+
+    private final OperationMetricsService operationMetricsService;
+
+    /**
+     * 操作统计：只读取 Redis 中的分钟/小时汇总桶，不扫描 operation_logs。
+     * from/to 为 ISO 时间（默认最近7天），granularity 为 minute/hour（默认按区间跨度自动选择），
+     * 返回区间内所有出现过的操作
+     */
     @GetMapping("/operation-stats")
     @PreAuthorize("hasRole('ADMIN')")
-    public CommonResponse<Map<String, Object>> getOperationStats() {
+    public CommonResponse<Map<String, Object>> getOperationStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String granularity) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(7);
+
+        Granularity resolved;
+        try {
+            resolved = operationMetricsService.resolveGranularity(start, end, granularity);
+        } catch (IllegalArgumentException e) {
+            return CommonResponse.error(400, e.getMessage());
+        }
+        Map<LocalDateTime, Map<String, OperationStat>> buckets = operationMetricsService.query(start, end, resolved);
+
+        Map<String, OperationStat> operations = new TreeMap<>();
+        Map<String, Long> dailyStats = new TreeMap<>();
+        List<Map<String, Object>> series = new ArrayList<>();
+        buckets.forEach((time, bucket) -> {
+            OperationStat total = new OperationStat();
+            bucket.forEach((operation, stat) -> {
+                operations.computeIfAbsent(operation, op -> new OperationStat()).merge(stat);
+                total.merge(stat);
+            });
+            dailyStats.merge(time.toLocalDate().toString(), total.getCount(), Long::sum);
+
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("time", time);
+            point.put("count", total.getCount());
+            point.put("errors", total.getErrors());
+            point.put("avgTime", total.getAvgTime());
+            point.put("maxTime", total.getMaxTime());
+            series.add(point);
+        });
+
+        Map<String, Long> operationCounts = new LinkedHashMap<>();
+        operations.forEach((operation, stat) -> operationCounts.put(operation, stat.getCount()));
+
         Map<String, Object> stats = new HashMap<>();
-        
-        Map<String, Long> operationCounts = new HashMap<>();
-        operationCounts.put("getStudentById", redisCacheService.getOperationCount("getStudentById"));
-        operationCounts.put("getStudentList", redisCacheService.getOperationCount("getStudentList"));
-        operationCounts.put("createStudent", redisCacheService.getOperationCount("createStudent"));
-        operationCounts.put("updateStudent", redisCacheService.getOperationCount("updateStudent"));
-        operationCounts.put("deleteStudent", redisCacheService.getOperationCount("deleteStudent"));
-        operationCounts.put("login", redisCacheService.getOperationCount("login"));
-        
+        stats.put("from", start);
+        stats.put("to", end);
+        stats.put("granularity", resolved.name().toLowerCase(Locale.ROOT));
         stats.put("operationCounts", operationCounts);
-        
-        LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
-        List<Object[]> dailyCounts = operationLogRepository.countOperationsByDate(weekAgo);
-        
-        Map<String, Long> dailyStats = new HashMap<>();
-        for (Object[] row : dailyCounts) {
-            dailyStats.put(row[0].toString(), ((Number) row[1]).longValue());
-        }
-        
+        stats.put("operations", operations);
         stats.put("dailyStats", dailyStats);
-        
+        stats.put("series", series);
+
         return CommonResponse.success(stats);
     }
 }
-
@@ -0,0 +1,38 @@
+package com.eduvista.controller;
+
+import com.eduvista.service.LatencyMetricsService;
+import com.eduvista.util.CommonResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final LatencyMetricsService latencyMetricsService;
+
+    /**
+     * 各接口在滚动窗口内的延迟分位数（毫秒）：p50/p90/p99/p999/max，按方法和状态码分组
+     */
+    @GetMapping("/latency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CommonResponse<List<Map<String, Object>>> getLatency() {
+        return CommonResponse.success(latencyMetricsService.latencySummary());
+    }
+
+    /**
+     * Prometheus 抓取接口（文本格式），抓取时需携带 ADMIN 用户的 Bearer Token
+     */
+    @GetMapping(value = "/prometheus", produces = "text/plain; version=0.0.4; charset=utf-8")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String prometheus() {
+        return latencyMetricsService.prometheus();
+    }
+}
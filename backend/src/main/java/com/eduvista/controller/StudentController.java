@@ -1,46 +1,111 @@
 package com.eduvista.controller;
 
+import com.eduvista.aspect.LogParams;
 import com.eduvista.util.PageResponse; // 必须导入你刚才创建的 PageResponse 类
 import com.eduvista.dto.StudentDTO;
+import com.eduvista.dto.StudentFilter;
+import com.eduvista.dto.StudentImportResult;
+import com.eduvista.dto.StudentSuggestion;
+import com.eduvista.service.StudentImportService;
 import com.eduvista.service.StudentService;
 import com.eduvista.util.CommonResponse;
+import com.eduvista.util.CsvUtils;
+import com.eduvista.util.PageCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/student")
 @RequiredArgsConstructor
+@Slf4j
 public class StudentController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final Object[] EXPORT_HEADER = {"id", "studentNo", "name", "gender", "birthDate", "phone",
+            "email", "address", "classId", "className", "createdAt"};
+
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
+    private final ObjectMapper objectMapper;
 
     @Value("${file.upload.path}")
     private String uploadPath;
 
     /**
      * 修改点：将返回类型改为 CommonResponse<PageResponse<StudentDTO>>
+     * 传入 after 参数（第一页传空字符串）时使用游标分页，返回 nextCursor；否则保持 page/size 分页
+     * slice=true 时不返回总数（totalElements / totalPages 为 -1），只返回 hasNext
+     * 可按班级、性别、出生日期范围（yyyy-MM-dd）筛选，sort 支持 id/studentNo/name/birthDate/createdAt，如 sort=name,asc
      */
     @GetMapping("/list")
     @PreAuthorize("hasAnyRole('ADMIN', 'STUDENT')")
     public CommonResponse<PageResponse<StudentDTO>> getStudentList(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String keyword) {
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) String gender,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate birthTo,
+            @RequestParam(required = false) String sort) {
+
+        StudentFilter filter;
+        try {
+            filter = StudentFilter.of(classId, gender, birthFrom, birthTo, keyword, sort);
+        } catch (IllegalArgumentException e) {
+            return CommonResponse.error(400, e.getMessage());
+        }
+        if (filter.isStructured()) {
+            if (after != null) {
+                return CommonResponse.error(400, "游标分页不支持筛选条件和排序");
+            }
+            return CommonResponse.success(studentService.findFiltered(filter, page, size, !slice));
+        }
+
+        if (after != null) {
+            Long afterId;
+            try {
+                afterId = PageCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return CommonResponse.error(400, e.getMessage());
+            }
+            return CommonResponse.success(studentService.findAfter(keyword, afterId, size));
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
 
@@ -48,14 +113,25 @@ public class StudentController {
         PageResponse<StudentDTO> students;
 
         if (keyword != null && !keyword.isEmpty()) {
-            students = studentService.search(keyword, pageable);
+            students = studentService.search(keyword, pageable, !slice);
         } else {
-            students = studentService.findAll(pageable);
+            students = studentService.findAll(pageable, !slice);
         }
 
         return CommonResponse.success(students);
     }
 
+    /**
+     * 搜索框自动补全：返回学号或姓名以 prefix 开头的前 limit 个学生（id、学号、姓名）
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STUDENT')")
+    public CommonResponse<List<StudentSuggestion>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return CommonResponse.success(studentService.suggest(prefix, Math.max(1, Math.min(limit, 50))));
+    }
+
     // --- 以下方法保持不变 ---
 
     @GetMapping("/{id}")
@@ -67,6 +143,7 @@ public class StudentController {
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @LogParams(include = {"student.studentNo", "student.name", "student.classId"})
     public CommonResponse<Map<String, Object>> createStudent(@RequestBody StudentDTO student) {
         StudentDTO saved = studentService.save(student);
         
@@ -92,8 +169,25 @@ public class StudentController {
         return CommonResponse.success(response);
     }
 
+    /**
+     * CSV 批量导入（需ADMIN权限），返回成功/失败行数和逐行错误
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CommonResponse<StudentImportResult> importStudents(@RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            return CommonResponse.error(400, "文件不能为空");
+        }
+        try (InputStream inputStream = file.getInputStream()) {
+            return CommonResponse.success(studentImportService.importCsv(inputStream));
+        } catch (IllegalArgumentException e) {
+            return CommonResponse.error(400, e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @LogParams(include = {"id", "student.studentNo", "student.name", "student.classId"})
     public CommonResponse<StudentDTO> updateStudent(@PathVariable Long id, @RequestBody StudentDTO student) {
         student.setId(id);
         StudentDTO updated = studentService.save(student);
@@ -149,4 +243,67 @@ public class StudentController {
         List<StudentDTO> students = studentService.findAll();
         return CommonResponse.success(students);
     }
-}
\ No newline at end of file
+
+    /**
+     * /all 的流式版本：NDJSON，每行一个学生，边读数据库边写响应，服务端内存占用与学生数量无关
+     */
+    @GetMapping(value = "/all/stream", produces = NDJSON)
+    @PreAuthorize("hasAnyRole('ADMIN', 'STUDENT')")
+    public ResponseEntity<StreamingResponseBody> streamAllStudents() {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+            long start = System.currentTimeMillis();
+            long count = studentService.forEachStudent(null, null, student -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(student));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+            log.info("流式导出学生完成: {} 个, 耗时 {} ms", count, System.currentTimeMillis() - start);
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * CSV 导出（需ADMIN权限）：从数据库游标直接写入响应，支持班级和关键字过滤；gzip=true 时返回 .csv.gz
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(required = false) Long classId,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = outputStream -> {
+            long start = System.currentTimeMillis();
+            CountingOutputStream counter = new CountingOutputStream(outputStream);
+            OutputStream target = gzip ? new GZIPOutputStream(counter, 64 * 1024) : counter;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+            // UTF-8 BOM：Excel 打开时正确识别中文
+            writer.write('\uFEFF');
+            writer.write(CsvUtils.formatLine(EXPORT_HEADER));
+            long rows = studentService.forEachStudent(classId, keyword, student -> {
+                try {
+                    writer.write(CsvUtils.formatLine(student.getId(), student.getStudentNo(), student.getName(),
+                            student.getGender(), student.getBirthDate(), student.getPhone(), student.getEmail(),
+                            student.getAddress(), student.getClassId(), student.getClassName(), student.getCreatedAt()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.close();
+
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            log.info("导出学生CSV完成: {} 行, {} 字节{}, 耗时 {} ms, {} 行/秒, {} KB/秒",
+                    rows, counter.getByteCount(), gzip ? "(gzip)" : "", elapsed,
+                    rows * 1000 / elapsed, counter.getByteCount() * 1000 / 1024 / elapsed);
+        };
+        String filename = gzip ? "students.csv.gz" : "students.csv";
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,24 @@
+package com.eduvista.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 班级摘要（下拉框、统计用），不包含学生集合
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassSummary implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private String classNo;
+    private String className;
+    private String grade;
+    private String major;
+    private Long studentCount;
+}
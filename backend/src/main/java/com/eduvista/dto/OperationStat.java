@@ -0,0 +1,29 @@
+package com.eduvista.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 某个时间段内单个操作的汇总指标（来自 Redis 分钟/小时汇总桶）
+ */
+@Data
+@NoArgsConstructor
+public class OperationStat {
+    private long count;
+    private long errors;
+    /** 执行时间合计（毫秒） */
+    private long totalTime;
+    /** 最大执行时间（毫秒） */
+    private long maxTime;
+
+    public long getAvgTime() {
+        return count == 0 ? 0 : totalTime / count;
+    }
+
+    public void merge(OperationStat other) {
+        count += other.count;
+        errors += other.errors;
+        totalTime += other.totalTime;
+        maxTime = Math.max(maxTime, other.maxTime);
+    }
+}
@@ -1,11 +1,13 @@
 package com.eduvista.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class StudentDTO implements Serializable {
     private static final long serialVersionUID = 1L;
 
@@ -28,4 +30,25 @@ public class StudentDTO implements Serializable {
     
     // Kafka 消息发送状态（仅用于响应，不持久化）
     private Boolean kafkaMessageSent;
-}
\ No newline at end of file
+
+    /**
+     * JPQL 构造器表达式使用（见 StudentRepository.DTO_SELECT），一条 SQL 连带查出班级，避免懒加载 N+1
+     */
+    public StudentDTO(Long id, String studentNo, String name, String gender, LocalDate birthDate,
+                      String phone, String email, String address, String avatar,
+                      Long classId, String className, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.studentNo = studentNo;
+        this.name = name;
+        this.gender = gender;
+        this.birthDate = birthDate;
+        this.phone = phone;
+        this.email = email;
+        this.address = address;
+        this.avatar = avatar;
+        this.classId = classId;
+        this.className = className;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,112 @@
+package com.eduvista.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * 学生列表筛选条件（不可变，已规范化）：空白值视为未设置，排序统一为 "字段,asc|desc"。
+ * 规范化后相同的条件 equals 相等、cacheKey 相同，可直接作为缓存 key
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class StudentFilter {
+
+    public static final String DEFAULT_SORT = "id,desc";
+    private static final Set<String> SORTABLE = Set.of("id", "studentNo", "name", "birthDate", "createdAt");
+
+    private final Long classId;
+    private final String gender;
+    private final LocalDate birthFrom;
+    private final LocalDate birthTo;
+    private final String keyword;
+    private final String sort;
+
+    private StudentFilter(Long classId, String gender, LocalDate birthFrom, LocalDate birthTo, String keyword, String sort) {
+        this.classId = classId;
+        this.gender = gender;
+        this.birthFrom = birthFrom;
+        this.birthTo = birthTo;
+        this.keyword = keyword;
+        this.sort = sort;
+    }
+
+    /**
+     * @param sort "字段" 或 "字段,asc|desc"，为空时按 ID 倒序
+     * @throws IllegalArgumentException 排序字段不支持或出生日期范围颠倒
+     */
+    public static StudentFilter of(Long classId, String gender, LocalDate birthFrom, LocalDate birthTo,
+                                   String keyword, String sort) {
+        if (birthFrom != null && birthTo != null && birthFrom.isAfter(birthTo)) {
+            throw new IllegalArgumentException("出生日期范围无效");
+        }
+        return new StudentFilter(classId, blankToNull(gender), birthFrom, birthTo, blankToNull(keyword), normalizeSort(sort));
+    }
+
+    /**
+     * 是否包含结构化筛选条件或非默认排序；否则使用普通列表 / 搜索路径
+     */
+    public boolean isStructured() {
+        return classId != null || gender != null || birthFrom != null || birthTo != null || !DEFAULT_SORT.equals(sort);
+    }
+
+    /**
+     * 计数与排序无关，去掉排序后作为计数缓存的 key
+     */
+    public StudentFilter withoutSort() {
+        return new StudentFilter(classId, gender, birthFrom, birthTo, keyword, DEFAULT_SORT);
+    }
+
+    /**
+     * 非 ID 排序时追加 ID 倒序，保证分页顺序稳定
+     */
+    public Sort toSort() {
+        String[] parts = sort.split(",");
+        Sort result = Sort.by(Sort.Direction.fromString(parts[1]), parts[0]);
+        return "id".equals(parts[0]) ? result : result.and(Sort.by("id").descending());
+    }
+
+    /**
+     * 规范化的缓存 key 片段：字段顺序固定，未设置的条件省略
+     */
+    public String cacheKey() {
+        StringBuilder key = new StringBuilder();
+        if (classId != null) {
+            key.append("c=").append(classId).append('|');
+        }
+        if (gender != null) {
+            key.append("g=").append(gender).append('|');
+        }
+        if (birthFrom != null || birthTo != null) {
+            key.append("b=").append(birthFrom != null ? birthFrom : "").append("..")
+                    .append(birthTo != null ? birthTo : "").append('|');
+        }
+        key.append("s=").append(sort);
+        if (keyword != null) {
+            key.append("|k=").append(keyword);
+        }
+        return key.toString();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String normalizeSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return DEFAULT_SORT;
+        }
+        String[] parts = sort.trim().split(",");
+        String field = parts[0].trim();
+        String direction = parts.length > 1 ? parts[1].trim().toLowerCase() : "asc";
+        if (!SORTABLE.contains(field) || !(direction.equals("asc") || direction.equals("desc"))) {
+            throw new IllegalArgumentException("不支持的排序: " + sort);
+        }
+        return field + "," + direction;
+    }
+}
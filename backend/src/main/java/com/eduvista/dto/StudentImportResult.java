@@ -0,0 +1,38 @@
+package com.eduvista.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导入结果：成功/失败行数及逐行错误
+ */
+@Data
+public class StudentImportResult {
+    /** 最多返回的错误明细条数，超出部分只计入 failed */
+    private static final int MAX_ERRORS = 1000;
+
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addError(long line, String studentNo, String message) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, studentNo, message));
+        }
+        failed++;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;          // CSV 行号（表头为第 1 行）
+        private String studentNo;
+        private String message;
+    }
+}
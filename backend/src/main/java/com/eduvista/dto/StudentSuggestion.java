@@ -0,0 +1,17 @@
+package com.eduvista.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 搜索框自动补全条目
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentSuggestion {
+    private Long id;
+    private String studentNo;
+    private String name;
+}
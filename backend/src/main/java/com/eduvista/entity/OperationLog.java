@@ -39,7 +39,9 @@ public class OperationLog {
     
     @PrePersist
     protected void onCreate() {
-        createTime = LocalDateTime.now();
+        if (createTime == null) {
+            createTime = LocalDateTime.now();
+        }
     }
 }
 
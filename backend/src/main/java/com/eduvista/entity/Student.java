@@ -13,7 +13,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+        // 列表筛选（见 StudentSpecifications）：班级 + 性别 + 出生日期、性别 + 出生日期、出生日期范围。
+        // 只按班级筛选走 class_id 外键索引（InnoDB 二级索引隐含主键 id，已按 id 有序），不再单独建 (class_id, id)
+        @Index(name = "idx_students_class_gender_birth", columnList = "class_id, gender, birth_date"),
+        @Index(name = "idx_students_gender_birth", columnList = "gender, birth_date"),
+        @Index(name = "idx_students_birth_date", columnList = "birth_date")
+})
 @Data
 @Builder
 @NoArgsConstructor
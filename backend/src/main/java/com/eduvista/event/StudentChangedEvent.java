@@ -0,0 +1,28 @@
+package com.eduvista.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 学生数据变更事件（在事务提交后发布）。
+ * 本节点产生的事件同时会通过 Redis 广播到其他节点，在其他节点上以 remote = true 重新发布。
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StudentChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final List<Long> studentIds;
+    /** 是否来自其他节点 */
+    private final boolean remote;
+}
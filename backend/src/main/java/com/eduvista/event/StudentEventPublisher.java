@@ -0,0 +1,94 @@
+package com.eduvista.event;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 学生变更事件的发布与跨节点广播。
+ * 本地通过 ApplicationEventPublisher 发布，同时发布到 Redis 频道；
+ * 其他节点收到后以 remote = true 在本地重新发布，监听方无需关心事件来源。
+ *
+ * 消息格式：{nodeId}|{type}|{id1},{id2},...
+ * 断线重连后重新订阅频道时发布 StudentEventsResubscribedEvent。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentEventPublisher implements MessageListener, SubscriptionListener {
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    @Value("${student.events-channel:student:events}")
+    private String channel;
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * 发布变更事件，调用方应保证在事务提交之后调用
+     */
+    public void publish(StudentChangedEvent.Type type, List<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        applicationEventPublisher.publishEvent(new StudentChangedEvent(type, List.copyOf(studentIds), false));
+        try {
+            String ids = studentIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+            stringRedisTemplate.convertAndSend(channel, nodeId + "|" + type.name() + "|" + ids);
+        } catch (Exception e) {
+            log.warn("学生变更事件广播失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            StudentChangedEvent.Type type = StudentChangedEvent.Type.valueOf(parts[1]);
+            List<Long> ids = new ArrayList<>();
+            for (String id : parts[2].split(",")) {
+                if (!id.isEmpty()) {
+                    ids.add(Long.parseLong(id));
+                }
+            }
+            applicationEventPublisher.publishEvent(new StudentChangedEvent(type, ids, true));
+        } catch (Exception e) {
+            log.warn("无法解析学生变更事件: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] subscribedChannel, long count) {
+        if (subscribed.getAndSet(true)) {
+            log.warn("学生变更事件频道已重新订阅，断线期间的事件可能丢失");
+            applicationEventPublisher.publishEvent(new StudentEventsResubscribedEvent());
+        }
+    }
+}
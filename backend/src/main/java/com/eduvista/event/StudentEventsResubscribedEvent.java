@@ -0,0 +1,8 @@
+package com.eduvista.event;
+
+/**
+ * 学生变更事件频道在断线后重新订阅（首次订阅不发布）。
+ * 断线期间其他节点广播的事件已经丢失，依赖事件同步的本地状态需要自行补齐
+ */
+public class StudentEventsResubscribedEvent {
+}
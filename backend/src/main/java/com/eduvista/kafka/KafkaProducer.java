@@ -1,11 +1,13 @@
 package com.eduvista.kafka;
 
+import com.eduvista.dto.StudentDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -20,15 +22,8 @@ public class KafkaProducer {
     private static final String STUDENT_WELCOME_TOPIC = "student-welcome";
     
     public void sendStudentRegisterMessage(String studentNo, String name, String email) {
-        Map<String, Object> message = new HashMap<>();
-        message.put("studentNo", studentNo);
-        message.put("name", name);
-        message.put("email", email);
-        message.put("timestamp", System.currentTimeMillis());
-        message.put("action", "register");
-        
         try {
-            kafkaTemplate.send(STUDENT_REGISTER_TOPIC, studentNo, message);
+            kafkaTemplate.send(STUDENT_REGISTER_TOPIC, studentNo, registerMessage(studentNo, name, email));
             log.info("发送学生注册消息成功: {}", studentNo);
         } catch (Exception e) {
             log.error("发送学生注册消息失败: {}", e.getMessage(), e);
@@ -36,18 +31,50 @@ public class KafkaProducer {
     }
     
     public void sendWelcomeMessage(String studentNo, String name) {
-        Map<String, Object> message = new HashMap<>();
-        message.put("studentNo", studentNo);
-        message.put("name", name);
-        message.put("message", "欢迎加入学生信息管理系统！");
-        message.put("timestamp", System.currentTimeMillis());
-        
         try {
-            kafkaTemplate.send(STUDENT_WELCOME_TOPIC, studentNo, message);
+            kafkaTemplate.send(STUDENT_WELCOME_TOPIC, studentNo, welcomeMessage(studentNo, name));
             log.info("发送欢迎消息成功: {}", studentNo);
         } catch (Exception e) {
             log.error("发送欢迎消息失败: {}", e.getMessage(), e);
         }
     }
-}
 
+    /**
+     * 批量导入：逐条交给 KafkaTemplate 异步发送（由生产者按 batch.size / linger.ms 合并成批），只记录一条汇总日志
+     */
+    public int sendStudentRegisterMessages(List<StudentDTO> students) {
+        int sent = 0;
+        for (StudentDTO student : students) {
+            try {
+                kafkaTemplate.send(STUDENT_REGISTER_TOPIC, student.getStudentNo(),
+                        registerMessage(student.getStudentNo(), student.getName(), student.getEmail()));
+                kafkaTemplate.send(STUDENT_WELCOME_TOPIC, student.getStudentNo(),
+                        welcomeMessage(student.getStudentNo(), student.getName()));
+                sent++;
+            } catch (Exception e) {
+                log.error("发送学生注册消息失败: {}", e.getMessage());
+            }
+        }
+        log.info("批量发送学生注册/欢迎消息: {}/{}", sent, students.size());
+        return sent;
+    }
+
+    private static Map<String, Object> registerMessage(String studentNo, String name, String email) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("studentNo", studentNo);
+        message.put("name", name);
+        message.put("email", email);
+        message.put("timestamp", System.currentTimeMillis());
+        message.put("action", "register");
+        return message;
+    }
+
+    private static Map<String, Object> welcomeMessage(String studentNo, String name) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("studentNo", studentNo);
+        message.put("name", name);
+        message.put("message", "欢迎加入学生信息管理系统！");
+        message.put("timestamp", System.currentTimeMillis());
+        return message;
+    }
+}
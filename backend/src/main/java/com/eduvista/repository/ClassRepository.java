@@ -1,13 +1,24 @@
 package com.eduvista.repository;
 
+import com.eduvista.dto.ClassSummary;
 import com.eduvista.entity.Class;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ClassRepository extends JpaRepository<Class, Long> {
     Optional<Class> findByClassNo(String classNo);
+
+    /**
+     * 班级摘要及人数（一条聚合查询，不加载学生集合）
+     */
+    @Query("SELECT new com.eduvista.dto.ClassSummary(c.id, c.classNo, c.className, c.grade, c.major, COUNT(s.id)) " +
+           "FROM Class c LEFT JOIN c.students s " +
+           "GROUP BY c.id, c.classNo, c.className, c.grade, c.major ORDER BY c.id")
+    List<ClassSummary> findSummaries();
 }
 
@@ -17,8 +17,5 @@ public interface OperationLogRepository extends JpaRepository<OperationLog, Long
     List<Object[]> countOperationsByTypeSince(@org.springframework.data.repository.query.Param("startTime") LocalDateTime startTime);
     
     Page<OperationLog> findByUsername(String username, Pageable pageable);
-    
-    @Query("SELECT DATE(o.createTime) as date, COUNT(o) as count FROM OperationLog o WHERE o.createTime >= :startTime GROUP BY DATE(o.createTime) ORDER BY date")
-    List<Object[]> countOperationsByDate(@org.springframework.data.repository.query.Param("startTime") LocalDateTime startTime);
 }
 
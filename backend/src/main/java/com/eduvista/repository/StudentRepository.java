@@ -1,23 +1,124 @@
 package com.eduvista.repository;
 
+import com.eduvista.dto.StudentDTO;
+import com.eduvista.dto.StudentSuggestion;
 import com.eduvista.entity.Student;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>,
+        JpaSpecificationExecutor<Student>, StudentRepositoryCustom {
+
+    /**
+     * 直接投影为 StudentDTO，LEFT JOIN 班级：每次查询固定一条 SQL，不加载实体，也不会触发班级懒加载
+     */
+    String DTO_SELECT = "SELECT new com.eduvista.dto.StudentDTO(s.id, s.studentNo, s.name, s.gender, s.birthDate, " +
+            "s.phone, s.email, s.address, s.avatar, c.id, c.className, s.createdAt, s.updatedAt) " +
+            "FROM Student s LEFT JOIN s.studentClass c";
+
+    /**
+     * 关键字匹配：姓名、学号、邮箱包含关键字，与内存搜索索引（StudentSearchIndex）的字段一致
+     */
+    String KEYWORD_MATCH = "s.name LIKE CONCAT('%', :keyword, '%') OR s.studentNo LIKE CONCAT('%', :keyword, '%') " +
+            "OR s.email LIKE CONCAT('%', :keyword, '%')";
+
     Optional<Student> findByStudentNo(String studentNo);
     boolean existsByStudentNo(String studentNo);
     
-    @Query("SELECT s FROM Student s WHERE s.name LIKE %:keyword% OR s.studentNo LIKE %:keyword%")
+    @Query("SELECT s FROM Student s WHERE " + KEYWORD_MATCH)
     Page<Student> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
     
     Page<Student> findByStudentClassId(Long classId, Pageable pageable);
-}
 
+    /**
+     * 分页只查询学生 ID（学生详情从缓存批量组装）。
+     * 返回 Slice：多取一行判断是否有下一页，不执行 COUNT，总数由 StudentCountCache 提供
+     */
+    @Query("SELECT s.id FROM Student s")
+    Slice<Long> findIdSlice(Pageable pageable);
+
+    @Query("SELECT s.id FROM Student s WHERE " + KEYWORD_MATCH)
+    Slice<Long> searchIdSliceByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * 自动补全的数据库回退：前缀 LIKE 可以使用学号唯一索引。prefix 需由调用方转义 %、_ 和反斜杠
+     */
+    @Query("SELECT new com.eduvista.dto.StudentSuggestion(s.id, s.studentNo, s.name) FROM Student s " +
+           "WHERE s.studentNo LIKE :prefix% OR s.name LIKE :prefix% ORDER BY s.studentNo")
+    List<StudentSuggestion> suggestByPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * 批量导入时的唯一性校验：返回已存在的学号 / 邮箱
+     */
+    @Query("SELECT s.studentNo FROM Student s WHERE s.studentNo IN :studentNos")
+    List<String> findExistingStudentNos(@Param("studentNos") Collection<String> studentNos);
+
+    @Query("SELECT s.email FROM Student s WHERE s.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT COUNT(s) FROM Student s WHERE " + KEYWORD_MATCH)
+    long countByKeyword(@Param("keyword") String keyword);
+
+    /**
+     * 键集分页：按 ID 倒序取 id < afterId 的下一批 ID，走主键索引定位，不需要扫描并丢弃前面的行
+     */
+    @Query("SELECT s.id FROM Student s WHERE s.id < :afterId ORDER BY s.id DESC")
+    List<Long> findIdsBefore(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT s.id FROM Student s WHERE s.id < :afterId AND (" + KEYWORD_MATCH + ") ORDER BY s.id DESC")
+    List<Long> searchIdsBefore(@Param("keyword") String keyword, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(DTO_SELECT + " WHERE s.id = :id")
+    Optional<StudentDTO> findDTOById(@Param("id") Long id);
+
+    @Query(DTO_SELECT + " WHERE s.id IN :ids")
+    List<StudentDTO> findDTOsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(DTO_SELECT)
+    List<StudentDTO> findAllDTOs();
+
+    /**
+     * 按 ID 倒序的分块读取（键集分页）：每次取 id < afterId 的下一块
+     */
+    @Query(DTO_SELECT + " WHERE s.id < :afterId ORDER BY s.id DESC")
+    List<StudentDTO> findDTOChunk(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 流式读取全部学生 ID（MySQL 驱动在 fetchSize = Integer.MIN_VALUE 时逐行读取），需在只读事务中使用
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT s.id FROM Student s")
+    Stream<Long> streamAllIds();
+
+    /**
+     * 流式读取搜索索引所需字段：id, name, studentNo, email，需在只读事务中使用
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT s.id, s.name, s.studentNo, s.email FROM Student s")
+    Stream<Object[]> streamSearchFields();
+
+    /**
+     * 流式读取学生 DTO（逐行读取游标，投影结果不进入持久化上下文），需在只读事务中使用。
+     * classId / keyword 为 null 时不过滤
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(DTO_SELECT + " WHERE (:classId IS NULL OR c.id = :classId) AND (:keyword IS NULL OR " +
+           KEYWORD_MATCH + ") ORDER BY s.id")
+    Stream<StudentDTO> streamDTOs(@Param("classId") Long classId, @Param("keyword") String keyword);
+}
@@ -0,0 +1,14 @@
+package com.eduvista.repository;
+
+import com.eduvista.entity.Student;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface StudentRepositoryCustom {
+
+    /**
+     * 按动态条件分页只查询学生 ID（多取一行判断 hasNext，不执行 COUNT）
+     */
+    Slice<Long> findIds(Specification<Student> spec, Pageable pageable);
+}
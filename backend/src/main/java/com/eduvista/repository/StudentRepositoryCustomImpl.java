@@ -0,0 +1,45 @@
+package com.eduvista.repository;
+
+import com.eduvista.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * StudentRepository 的自定义片段：JpaSpecificationExecutor 只能返回实体，这里用 Criteria 只查询 ID 列
+ */
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Long> findIds(Specification<Student> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Student> root = query.from(Student.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id")).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        int size = pageable.getPageSize();
+        List<Long> ids = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = ids.size() > size;
+        return new SliceImpl<>(hasNext ? ids.subList(0, size) : ids, pageable, hasNext);
+    }
+}
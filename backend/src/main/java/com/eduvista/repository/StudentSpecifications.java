@@ -0,0 +1,44 @@
+package com.eduvista.repository;
+
+import com.eduvista.dto.StudentFilter;
+import com.eduvista.entity.Student;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 学生筛选条件的动态查询谓词。谓词顺序与 Student 上的组合索引（class_id, gender, birth_date）一致
+ */
+public final class StudentSpecifications {
+
+    private StudentSpecifications() {
+    }
+
+    public static Specification<Student> matching(StudentFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getClassId() != null) {
+                // 直接比较外键列，不产生 JOIN
+                predicates.add(cb.equal(root.get("studentClass").get("id"), filter.getClassId()));
+            }
+            if (filter.getGender() != null) {
+                predicates.add(cb.equal(root.get("gender"), filter.getGender()));
+            }
+            if (filter.getBirthFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("birthDate"), filter.getBirthFrom()));
+            }
+            if (filter.getBirthTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("birthDate"), filter.getBirthTo()));
+            }
+            if (filter.getKeyword() != null) {
+                String pattern = "%" + filter.getKeyword() + "%";
+                // 与 StudentRepository.KEYWORD_MATCH 一致：姓名、学号、邮箱
+                predicates.add(cb.or(cb.like(root.get("name"), pattern), cb.like(root.get("studentNo"), pattern),
+                        cb.like(root.get("email"), pattern)));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.eduvista.service;
+
+import com.eduvista.dto.ClassSummary;
+import com.eduvista.event.StudentChangedEvent;
+import com.eduvista.repository.ClassRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ClassService {
+
+    public static final String SUMMARY_CACHE = "class-summaries";
+
+    private final ClassRepository classRepository;
+
+    /**
+     * 班级摘要列表：一条 GROUP BY 聚合查询统计各班人数，结果缓存
+     */
+    @Cacheable(cacheNames = SUMMARY_CACHE, key = "'all'")
+    public List<ClassSummary> findSummaries() {
+        return classRepository.findSummaries();
+    }
+
+    /**
+     * 学生新增、删除或更换班级都会改变人数，失效摘要缓存。
+     * 只处理本节点事件：两级缓存的失效会广播到其他节点，远程事件无需重复失效
+     */
+    @EventListener(condition = "!#event.remote")
+    @CacheEvict(cacheNames = SUMMARY_CACHE, key = "'all'")
+    public void onStudentChanged(StudentChangedEvent event) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.eduvista.service;
+
+import com.eduvista.util.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按 Controller 方法 + HTTP 状态码维护的延迟直方图（数据由 LatencyInterceptor 记录）。
+ * 分位数取自滚动窗口（metrics.latency.window，按 slots 个时间片滚动），_count/_sum 为启动以来累计值
+ */
+@Service
+public class LatencyMetricsService {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String METRIC = "http_server_requests_seconds";
+
+    @Value("${metrics.latency.window:60s}")
+    private Duration window;
+
+    @Value("${metrics.latency.slots:6}")
+    private int slots;
+
+    private record Key(String handler, int status) {
+    }
+
+    private final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public void record(String handler, int status, long nanos) {
+        histograms.computeIfAbsent(new Key(handler, status),
+                key -> new LatencyHistogram(window.toMillis() / slots, slots)).record(nanos);
+    }
+
+    /**
+     * 各方法/状态码在滚动窗口内的分位数（毫秒），按 handler、status 排序
+     */
+    public List<Map<String, Object>> latencySummary() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        sortedKeys().forEach(key -> {
+            LatencyHistogram histogram = histograms.get(key);
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("handler", key.handler());
+            row.put("status", key.status());
+            row.put("count", snapshot.count());
+            row.put("totalCount", histogram.totalCount());
+            row.put("mean", toMillis(snapshot.mean()));
+            row.put("p50", toMillis(snapshot.percentile(0.5)));
+            row.put("p90", toMillis(snapshot.percentile(0.9)));
+            row.put("p99", toMillis(snapshot.percentile(0.99)));
+            row.put("p999", toMillis(snapshot.percentile(0.999)));
+            row.put("max", toMillis(snapshot.max()));
+            result.add(row);
+        });
+        return result;
+    }
+
+    /**
+     * Prometheus 文本格式（summary：窗口分位数 + 累计 _count/_sum，另附窗口最大值 gauge）
+     */
+    public String prometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        out.append("# HELP ").append(METRIC).append(" HTTP request latency by handler method and status, quantiles over the last ")
+                .append(window.toSeconds()).append("s\n");
+        out.append("# TYPE ").append(METRIC).append(" summary\n");
+        List<Key> keys = sortedKeys();
+        for (Key key : keys) {
+            LatencyHistogram histogram = histograms.get(key);
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            String labels = "handler=\"" + escape(key.handler()) + "\",status=\"" + key.status() + "\"";
+            for (double quantile : QUANTILES) {
+                out.append(METRIC).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(toSeconds(snapshot.percentile(quantile))).append('\n');
+            }
+            out.append(METRIC).append("_count{").append(labels).append("} ").append(histogram.totalCount()).append('\n');
+            out.append(METRIC).append("_sum{").append(labels).append("} ").append(toSeconds(histogram.totalNanos())).append('\n');
+        }
+        out.append("# HELP ").append(METRIC).append("_max Maximum HTTP request latency over the last ")
+                .append(window.toSeconds()).append("s\n");
+        out.append("# TYPE ").append(METRIC).append("_max gauge\n");
+        for (Key key : keys) {
+            String labels = "handler=\"" + escape(key.handler()) + "\",status=\"" + key.status() + "\"";
+            out.append(METRIC).append("_max{").append(labels).append("} ")
+                    .append(toSeconds(histograms.get(key).snapshot().max())).append('\n');
+        }
+        return out.toString();
+    }
+
+    private List<Key> sortedKeys() {
+        return histograms.keySet().stream()
+                .sorted(Comparator.comparing(Key::handler).thenComparingInt(Key::status))
+                .toList();
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static String toSeconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1_000_000_000.0);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,358 @@
+package com.eduvista.service;
+
+import com.eduvista.entity.OperationLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 操作日志异步批量写入。
+ *
+ * 请求线程只把日志放入有界队列，后台线程按批取出，通过 JdbcTemplate.batchUpdate 写入（多值 INSERT），
+ * 请求延迟不再依赖 MySQL。队列满时的处理由 operation-log.overflow-policy 决定：
+ * - block：最多等待 block-timeout，仍然满则丢弃（避免数据库故障时拖住所有请求）
+ * - drop-oldest：丢弃队列中最旧的日志
+ * - spill：追加写入本地文件（NDJSON），下次启动后由写入线程补写入数据库
+ * 应用关闭时停止接收并把队列中剩余日志写完（最多等待 shutdown-timeout）。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OperationLogWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO operation_logs "
+            + "(username, operation, method, url, ip, params, execution_time, create_time) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    enum OverflowPolicy {
+        BLOCK, DROP_OLDEST, SPILL
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${operation-log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${operation-log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${operation-log.flush-interval:1s}")
+    private Duration flushInterval;
+
+    @Value("${operation-log.overflow-policy:drop-oldest}")
+    private String overflowPolicyName;
+
+    @Value("${operation-log.block-timeout:50ms}")
+    private Duration blockTimeout;
+
+    @Value("${operation-log.spill-file:${user.home}/student-hub/operation-log-spill.ndjson}")
+    private String spillFile;
+
+    @Value("${operation-log.shutdown-timeout:10s}")
+    private Duration shutdownTimeout;
+
+    private BlockingQueue<OperationLog> queue;
+    private OverflowPolicy overflowPolicy;
+    private Thread worker;
+    private volatile boolean running;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final Object spillLock = new Object();
+
+    @PostConstruct
+    public void start() {
+        overflowPolicy = OverflowPolicy.valueOf(overflowPolicyName.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        running = true;
+        worker = new Thread(this::drainLoop, "operation-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("操作日志异步写入已启动: capacity={}, batchSize={}, overflow={}", queueCapacity, batchSize, overflowPolicy);
+    }
+
+    /**
+     * 提交一条日志（请求线程调用，不访问数据库）
+     */
+    public void submit(OperationLog operationLog) {
+        if (queue.offer(operationLog)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(operationLog, blockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                        onDropped();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    onDropped();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(operationLog)) {
+                    if (queue.poll() != null) {
+                        onDropped();
+                    }
+                }
+            }
+            case SPILL -> spill(List.of(operationLog));
+        }
+    }
+
+    private void drainLoop() {
+        replaySpillFile();
+        List<OperationLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OperationLog first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // 关闭时被中断：继续循环把剩余日志写完
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<OperationLog> batch) {
+        try {
+            insert(batch);
+        } catch (Exception e) {
+            log.warn("批量写入操作日志失败（{} 条），改为逐条写入: {}", batch.size(), e.getMessage());
+            writeOneByOne(batch);
+        }
+    }
+
+    /**
+     * 批量失败时逐条重试，只有写不进去的那几条才进入溢出文件或计为丢弃，不连累整批
+     */
+    private void writeOneByOne(List<OperationLog> batch) {
+        List<OperationLog> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                insert(List.of(batch.get(i)));
+            } catch (DataIntegrityViolationException e) {
+                // 单条数据问题（如字段超长），只跳过这一条
+                failed.add(batch.get(i));
+            } catch (Exception e) {
+                // 连接等非数据问题：剩余的也写不进去，不再逐条等待超时
+                failed.addAll(batch.subList(i, batch.size()));
+                break;
+            }
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+        log.warn("操作日志逐条写入仍失败 {} 条", failed.size());
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            spill(failed);
+        } else {
+            dropped.addAndGet(failed.size());
+        }
+    }
+
+    private void insert(List<OperationLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, operationLog) -> {
+            ps.setString(1, operationLog.getUsername());
+            ps.setString(2, operationLog.getOperation());
+            ps.setString(3, operationLog.getMethod());
+            ps.setString(4, operationLog.getUrl());
+            ps.setString(5, operationLog.getIp());
+            ps.setString(6, operationLog.getParams());
+            ps.setObject(7, operationLog.getExecutionTime());
+            ps.setObject(8, operationLog.getCreateTime());
+        });
+    }
+
+    private void onDropped() {
+        long count = dropped.incrementAndGet();
+        // 每丢弃 1000 条提示一次，避免日志本身刷屏
+        if (count % 1000 == 1) {
+            log.warn("操作日志队列已满，累计丢弃 {} 条", count);
+        }
+    }
+
+    private void spill(List<OperationLog> logs) {
+        synchronized (spillLock) {
+            Path path = Paths.get(spillFile);
+            try {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (OperationLog operationLog : logs) {
+                        writer.write(objectMapper.writeValueAsString(operationLog));
+                        writer.newLine();
+                    }
+                }
+                spilled.addAndGet(logs.size());
+            } catch (IOException e) {
+                log.warn("操作日志写入溢出文件失败，丢弃 {} 条: {}", logs.size(), e.getMessage());
+                dropped.addAndGet(logs.size());
+            }
+        }
+    }
+
+    /**
+     * 启动后由写入线程把上次溢出到文件的日志补写入数据库（不阻塞启动），全部完成后删除文件。
+     *
+     * 补写前先把溢出文件改名为 .replay，之后新溢出的日志写入新文件，留到下次启动补写。
+     * 每写完一批就把已写入的行号记入 .replay.offset，中途失败或关闭时保留进度，下次从断点继续，不会重复写入已写过的行。
+     * 无法解析的行（如进程崩溃时写了一半）和数据本身有问题的行跳过
+     */
+    private void replaySpillFile() {
+        Path spill = Paths.get(spillFile);
+        Path replay = Paths.get(spillFile + ".replay");
+        Path offsetFile = Paths.get(spillFile + ".replay.offset");
+        long done;
+        try {
+            synchronized (spillLock) {
+                if (!Files.exists(replay) && Files.exists(spill)) {
+                    Files.move(spill, replay);
+                }
+            }
+            if (!Files.exists(replay)) {
+                return;
+            }
+            done = Files.exists(offsetFile) ? Long.parseLong(Files.readString(offsetFile).trim()) : 0;
+        } catch (Exception e) {
+            log.warn("读取操作日志溢出文件失败，下次启动重试: {}", e.getMessage());
+            return;
+        }
+
+        long replayed = 0;
+        long skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+            List<OperationLog> batch = new ArrayList<>(batchSize);
+            List<Long> lineNumbers = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null && running) {
+                lineNumber++;
+                if (lineNumber <= done || line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, OperationLog.class));
+                    lineNumbers.add(lineNumber);
+                } catch (IOException e) {
+                    skipped++;
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    int invalid = replayBatch(batch, lineNumbers, offsetFile);
+                    skipped += invalid;
+                    replayed += batch.size() - invalid;
+                    saveOffset(offsetFile, lineNumber);
+                    batch.clear();
+                    lineNumbers.clear();
+                }
+            }
+            if (!running) {
+                log.info("应用关闭，操作日志补写暂停（本次已写入 {} 条），下次启动继续", replayed);
+                return;
+            }
+            if (!batch.isEmpty()) {
+                int invalid = replayBatch(batch, lineNumbers, offsetFile);
+                skipped += invalid;
+                replayed += batch.size() - invalid;
+            }
+        } catch (Exception e) {
+            log.warn("补写溢出的操作日志失败（本次已写入 {} 条），保留进度下次重试: {}", replayed, e.getMessage());
+            return;
+        }
+        try {
+            Files.delete(replay);
+            Files.deleteIfExists(offsetFile);
+        } catch (IOException e) {
+            log.warn("删除已补写的操作日志溢出文件失败: {}", e.getMessage());
+        }
+        log.info("已补写溢出文件中的操作日志 {} 条，跳过无效记录 {} 条", replayed, skipped);
+    }
+
+    /**
+     * 批量写入失败时逐条写入，每写入一条就记录进度；返回因数据问题跳过的条数。
+     * 连接等其他错误直接抛出，断点停在最后一条写入成功的行
+     */
+    private int replayBatch(List<OperationLog> batch, List<Long> lineNumbers, Path offsetFile) throws IOException {
+        try {
+            insert(batch);
+            return 0;
+        } catch (Exception e) {
+            log.warn("批量补写操作日志失败（{} 条），改为逐条写入: {}", batch.size(), e.getMessage());
+        }
+        int skipped = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                insert(List.of(batch.get(i)));
+            } catch (DataIntegrityViolationException e) {
+                skipped++;
+            }
+            saveOffset(offsetFile, lineNumbers.get(i));
+        }
+        return skipped;
+    }
+
+    /**
+     * 先写临时文件再原子替换，避免崩溃时留下不完整的进度
+     */
+    private static void saveOffset(Path offsetFile, long lineNumber) throws IOException {
+        Path temp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(lineNumber), StandardCharsets.UTF_8);
+        Files.move(temp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker == null) {
+            return;
+        }
+        try {
+            worker.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("关闭时仍有 {} 条操作日志未写入", queue.size());
+            if (overflowPolicy == OverflowPolicy.SPILL) {
+                List<OperationLog> rest = new ArrayList<>();
+                queue.drainTo(rest);
+                spill(rest);
+            }
+        }
+        log.info("操作日志异步写入已停止: 丢弃 {} 条, 溢出到文件 {} 条", dropped.get(), spilled.get());
+    }
+}
@@ -0,0 +1,309 @@
+package com.eduvista.service;
+
+import com.eduvista.dto.OperationStat;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 操作指标的分钟/小时汇总桶。
+ *
+ * 每次请求只累加到本地（按 分钟 + 操作 分组的 LongAdder），由 flush 定期通过一次 pipeline 写入 Redis Hash：
+ * metrics:op:m:{epoch分钟} 与 metrics:op:h:{epoch小时}，字段为 {操作}:count / :errors / :time / :max。
+ * 计数类字段用 HINCRBY 累加，max 用 Lua 脚本比较后写入。仪表盘只读取汇总桶（合并本节点未写入的增量），不再扫描 operation_logs。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OperationMetricsService {
+
+    private static final String MINUTE_PREFIX = "metrics:op:m:";
+    private static final String HOUR_PREFIX = "metrics:op:h:";
+
+    /**
+     * KEYS[1] = 汇总桶，ARGV[1] = TTL（秒），之后每 5 个参数一组：操作、count 增量、errors 增量、time 增量、max
+     */
+    private static final String ROLLUP_SCRIPT = """
+            local key = KEYS[1]
+            for i = 2, #ARGV, 5 do
+              local op = ARGV[i]
+              redis.call('HINCRBY', key, op .. ':count', ARGV[i + 1])
+              if tonumber(ARGV[i + 2]) > 0 then
+                redis.call('HINCRBY', key, op .. ':errors', ARGV[i + 2])
+              end
+              redis.call('HINCRBY', key, op .. ':time', ARGV[i + 3])
+              local max = tonumber(redis.call('HGET', key, op .. ':max') or '0')
+              if tonumber(ARGV[i + 4]) > max then
+                redis.call('HSET', key, op .. ':max', ARGV[i + 4])
+              end
+            end
+            redis.call('EXPIRE', key, ARGV[1])
+            return 1
+            """;
+
+    public enum Granularity {
+        MINUTE(60_000L), HOUR(3_600_000L);
+
+        private final long millis;
+
+        Granularity(long millis) {
+            this.millis = millis;
+        }
+
+        public static Granularity parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("granularity 只支持 minute 或 hour");
+            }
+        }
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${operation-metrics.minute-retention:2d}")
+    private Duration minuteRetention;
+
+    @Value("${operation-metrics.hour-retention:90d}")
+    private Duration hourRetention;
+
+    /** 未指定粒度时，不超过该跨度的区间按分钟返回，否则按小时 */
+    @Value("${operation-metrics.auto-minute-range:6h}")
+    private Duration autoMinuteRange;
+
+    @Value("${operation-metrics.max-minute-range:24h}")
+    private Duration maxMinuteRange;
+
+    @Value("${operation-metrics.max-hour-range:90d}")
+    private Duration maxHourRange;
+
+    private record BucketKey(long minute, String operation) {
+    }
+
+    private static final class Rollup {
+        final LongAdder count = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder totalTime = new LongAdder();
+        final LongAccumulator maxTime = new LongAccumulator(Math::max, 0L);
+
+        // 已写入 Redis 的值，只在 flush 和 query 的 synchronized 块中读写
+        long flushedCount;
+        long flushedErrors;
+        long flushedTime;
+        long flushedMax;
+    }
+
+    private final Map<BucketKey, Rollup> rollups = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次操作（请求线程调用，不访问 Redis）
+     */
+    public void record(String operation, long executionTime, boolean error) {
+        long minute = System.currentTimeMillis() / Granularity.MINUTE.millis;
+        Rollup rollup = rollups.computeIfAbsent(new BucketKey(minute, operation), key -> new Rollup());
+        rollup.count.increment();
+        if (error) {
+            rollup.errors.increment();
+        }
+        rollup.totalTime.add(executionTime);
+        rollup.maxTime.accumulate(executionTime);
+    }
+
+    /**
+     * 把本地增量写入分钟桶和小时桶（每个分钟各执行两次脚本，全部放在一次 pipeline 中）。
+     * 本地值只增不清零，写入差值；两分钟前且已全部写入的分钟从本地移除。写入失败时保留增量下次重试
+     */
+    @Scheduled(fixedDelayString = "${operation-metrics.flush-interval:5000}")
+    @PreDestroy
+    public synchronized void flush() {
+        long currentMinute = System.currentTimeMillis() / Granularity.MINUTE.millis;
+        Map<Long, List<String>> argsByMinute = new HashMap<>();
+        List<Runnable> onSuccess = new ArrayList<>();
+
+        rollups.forEach((key, rollup) -> {
+            long count = rollup.count.sum();
+            long errors = rollup.errors.sum();
+            long totalTime = rollup.totalTime.sum();
+            long maxTime = rollup.maxTime.get();
+            if (count == rollup.flushedCount && errors == rollup.flushedErrors
+                    && totalTime == rollup.flushedTime && maxTime == rollup.flushedMax) {
+                if (key.minute() < currentMinute - 1) {
+                    rollups.remove(key);
+                }
+                return;
+            }
+            argsByMinute.computeIfAbsent(key.minute(), minute -> new ArrayList<>()).addAll(List.of(
+                    key.operation(),
+                    Long.toString(count - rollup.flushedCount),
+                    Long.toString(errors - rollup.flushedErrors),
+                    Long.toString(totalTime - rollup.flushedTime),
+                    Long.toString(maxTime)));
+            onSuccess.add(() -> {
+                rollup.flushedCount = count;
+                rollup.flushedErrors = errors;
+                rollup.flushedTime = totalTime;
+                rollup.flushedMax = maxTime;
+            });
+        });
+        if (argsByMinute.isEmpty()) {
+            return;
+        }
+
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                argsByMinute.forEach((minute, args) -> {
+                    redis.eval(ROLLUP_SCRIPT, ReturnType.INTEGER, 1,
+                            scriptArgs(MINUTE_PREFIX + minute, minuteRetention, args));
+                    redis.eval(ROLLUP_SCRIPT, ReturnType.INTEGER, 1,
+                            scriptArgs(HOUR_PREFIX + minute / 60, hourRetention, args));
+                });
+                return null;
+            });
+            onSuccess.forEach(Runnable::run);
+        } catch (Exception e) {
+            log.warn("写入操作指标汇总失败，下次重试: {}", e.getMessage());
+        }
+    }
+
+    private static String[] scriptArgs(String key, Duration ttl, List<String> args) {
+        String[] keysAndArgs = new String[args.size() + 2];
+        keysAndArgs[0] = key;
+        keysAndArgs[1] = Long.toString(ttl.toSeconds());
+        for (int i = 0; i < args.size(); i++) {
+            keysAndArgs[i + 2] = args.get(i);
+        }
+        return keysAndArgs;
+    }
+
+    /**
+     * 未指定粒度时按区间跨度选择；区间超出对应粒度的上限时抛出 IllegalArgumentException
+     */
+    public Granularity resolveGranularity(LocalDateTime from, LocalDateTime to, String granularity) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from 必须早于 to");
+        }
+        Duration range = Duration.between(from, to);
+        Granularity resolved = granularity == null || granularity.isBlank()
+                ? (range.compareTo(autoMinuteRange) <= 0 ? Granularity.MINUTE : Granularity.HOUR)
+                : Granularity.parse(granularity);
+        Duration limit = resolved == Granularity.MINUTE ? maxMinuteRange : maxHourRange;
+        if (range.compareTo(limit) > 0) {
+            throw new IllegalArgumentException("按" + resolved.name().toLowerCase(Locale.ROOT)
+                    + "统计的时间范围不能超过 " + limit);
+        }
+        return resolved;
+    }
+
+    /**
+     * 读取 [from, to) 覆盖的汇总桶（一次 pipeline HGETALL），并合并本节点尚未写入 Redis 的增量，
+     * 按桶起始时间升序返回各操作的指标。区间两端按粒度向下取整；没有任何操作的桶不返回
+     */
+    public Map<LocalDateTime, Map<String, OperationStat>> query(LocalDateTime from, LocalDateTime to,
+                                                                Granularity granularity) {
+        ZoneId zone = ZoneId.systemDefault();
+        long first = from.atZone(zone).toInstant().toEpochMilli() / granularity.millis;
+        long last = (to.atZone(zone).toInstant().toEpochMilli() - 1) / granularity.millis;
+        String prefix = granularity == Granularity.MINUTE ? MINUTE_PREFIX : HOUR_PREFIX;
+
+        List<Object> hashes;
+        Map<Long, Map<String, OperationStat>> buckets = new TreeMap<>();
+        // 与 flush 互斥：读到的 Redis 值与本地未写入的增量既不重复也不遗漏
+        synchronized (this) {
+            hashes = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (long bucket = first; bucket <= last; bucket++) {
+                    redis.hGetAll(prefix + bucket);
+                }
+                return null;
+            });
+            rollups.forEach((key, rollup) -> {
+                long bucket = granularity == Granularity.MINUTE ? key.minute() : key.minute() / 60;
+                OperationStat pending = pendingStat(rollup);
+                if (bucket >= first && bucket <= last && pending != null) {
+                    buckets.computeIfAbsent(bucket, b -> new TreeMap<>())
+                            .computeIfAbsent(key.operation(), op -> new OperationStat())
+                            .merge(pending);
+                }
+            });
+        }
+
+        for (int i = 0; i < hashes.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> fields = (Map<String, String>) hashes.get(i);
+            if (fields == null || fields.isEmpty()) {
+                continue;
+            }
+            Map<String, OperationStat> stats = buckets.computeIfAbsent(first + i, b -> new TreeMap<>());
+            parseBucket(fields).forEach((operation, stat) ->
+                    stats.computeIfAbsent(operation, op -> new OperationStat()).merge(stat));
+        }
+
+        Map<LocalDateTime, Map<String, OperationStat>> result = new LinkedHashMap<>();
+        buckets.forEach((bucket, stats) -> result.put(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(bucket * granularity.millis), zone), stats));
+        return result;
+    }
+
+    /**
+     * 本地尚未写入 Redis 的增量（max 取本地最大值，与 Redis 中的 max 合并时取较大者）；没有增量时返回 null
+     */
+    private static OperationStat pendingStat(Rollup rollup) {
+        long count = rollup.count.sum() - rollup.flushedCount;
+        long errors = rollup.errors.sum() - rollup.flushedErrors;
+        long totalTime = rollup.totalTime.sum() - rollup.flushedTime;
+        long maxTime = rollup.maxTime.get();
+        if (count == 0 && errors == 0 && totalTime == 0 && maxTime == rollup.flushedMax) {
+            return null;
+        }
+        OperationStat stat = new OperationStat();
+        stat.setCount(count);
+        stat.setErrors(errors);
+        stat.setTotalTime(totalTime);
+        stat.setMaxTime(maxTime);
+        return stat;
+    }
+
+    private static Map<String, OperationStat> parseBucket(Map<String, String> fields) {
+        Map<String, OperationStat> stats = new TreeMap<>();
+        fields.forEach((field, value) -> {
+            int separator = field.lastIndexOf(':');
+            if (separator <= 0) {
+                return;
+            }
+            OperationStat stat = stats.computeIfAbsent(field.substring(0, separator), op -> new OperationStat());
+            long number = Long.parseLong(value);
+            switch (field.substring(separator + 1)) {
+                case "count" -> stat.setCount(number);
+                case "errors" -> stat.setErrors(number);
+                case "time" -> stat.setTotalTime(number);
+                case "max" -> stat.setMaxTime(number);
+                default -> {
+                }
+            }
+        });
+        return stats;
+    }
+}
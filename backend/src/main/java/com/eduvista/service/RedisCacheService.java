@@ -1,137 +1,315 @@
 package com.eduvista.service;
 
+import com.eduvista.config.CacheTtlProperties;
 import com.eduvista.dto.StudentDTO;
+import com.eduvista.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class RedisCacheService {
 
     private static final String STUDENT_HASH_PREFIX = "student:hash:";
-    private static final Duration STUDENT_TTL = Duration.ofMinutes(30);
+    /** 学生 Hash 在 cache.ttl 中的配置名 */
+    private static final String STUDENT_HASH_CACHE = "student-hash";
+    private static final String STUDENT_MISSING_PREFIX = "student:missing:";
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final CacheTtlProperties cacheTtlProperties;
     
     @org.springframework.beans.factory.annotation.Autowired(required = false)
     private RedissonClient redissonClient;
 
-    public void incrementOperationCount(String operation) {
-        try {
-            String key = "operation:count:" + operation;
-            redisTemplate.opsForValue().increment(key);
-            redisTemplate.expire(key, 1, TimeUnit.DAYS);
-        } catch (Exception e) {
-            // Redis 不可用时，静默失败，不影响主流程
-        }
-    }
+    private final SingleFlight<Long, StudentDTO> studentLoads = new SingleFlight<>();
 
-    public Long getOperationCount(String operation) {
-        try {
-            String key = "operation:count:" + operation;
-            Object value = redisTemplate.opsForValue().get(key);
-            return value != null ? Long.parseLong(value.toString()) : 0L;
-        } catch (Exception e) {
-            // Redis 不可用时，返回 0
-            return 0L;
+    @Value("${student.negative-cache-ttl:60s}")
+    private Duration missingTtl;
+
+    public void cacheStudentHash(StudentDTO student) {
+        if (student == null || student.getId() == null) {
+            return;
         }
+        cacheStudentHashes(List.of(student));
     }
 
-    public void cacheStudentHash(StudentDTO student) {
+    /**
+     * 批量写入学生 Hash：HMSET + EXPIRE 全部放在一次 pipeline 中
+     */
+    public void cacheStudentHashes(Collection<StudentDTO> students) {
         try {
-            if (student == null || student.getId() == null) {
+            List<StudentDTO> valid = students.stream()
+                    .filter(student -> student != null && student.getId() != null)
+                    .toList();
+            if (valid.isEmpty()) {
                 return;
             }
-            String key = STUDENT_HASH_PREFIX + student.getId();
-            HashOperations<String, Object, Object> hash = redisTemplate.opsForHash();
-            hash.putAll(key, Map.of(
-                    "id", student.getId(),
-                    "studentNo", student.getStudentNo(),
-                    "name", student.getName(),
-                    "gender", student.getGender() != null ? student.getGender() : "",
-                    "phone", student.getPhone() != null ? student.getPhone() : "",
-                    "email", student.getEmail() != null ? student.getEmail() : "",
-                    "classId", student.getClassId() != null ? student.getClassId() : "",
-                    "className", student.getClassName() != null ? student.getClassName() : "",
-                    "avatar", student.getAvatar() != null ? student.getAvatar() : ""
-            ));
-            redisTemplate.expire(key, STUDENT_TTL);
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    Duration ttl = cacheTtlProperties.ttlFor(STUDENT_HASH_CACHE);
+                    for (StudentDTO student : valid) {
+                        String key = STUDENT_HASH_PREFIX + student.getId();
+                        operations.opsForHash().putAll(key, toHash(student));
+                        operations.expire(key, ttl);
+                    }
+                    return null;
+                }
+            });
         } catch (Exception e) {
             // Redis 不可用时，静默失败，不影响主流程
         }
     }
 
+    /**
+     * 单次 HGETALL 读取，空 Map 即表示未命中
+     */
     public StudentDTO getStudentFromHash(Long studentId) {
         try {
             if (studentId == null) {
                 return null;
             }
-            String key = STUDENT_HASH_PREFIX + studentId;
-            if (!Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
-                return null;
-            }
             HashOperations<String, Object, Object> hash = redisTemplate.opsForHash();
-            StudentDTO student = new StudentDTO();
-            student.setId(studentId);
-            student.setStudentNo(stringVal(hash.get(key, "studentNo")));
-            student.setName(stringVal(hash.get(key, "name")));
-            student.setGender(stringVal(hash.get(key, "gender")));
-            student.setPhone(stringVal(hash.get(key, "phone")));
-            student.setEmail(stringVal(hash.get(key, "email")));
-            student.setClassName(stringVal(hash.get(key, "className")));
-            student.setAvatar(stringVal(hash.get(key, "avatar")));
-            Object classIdVal = hash.get(key, "classId");
-            if (classIdVal != null && !"".equals(classIdVal.toString())) {
-                student.setClassId(Long.parseLong(classIdVal.toString()));
-            }
-            return student;
+            return fromHash(studentId, hash.entries(STUDENT_HASH_PREFIX + studentId));
         } catch (Exception e) {
             // Redis 不可用时，返回 null，让调用方从数据库查询
             return null;
         }
     }
 
+    /**
+     * 批量读取学生 Hash：所有 HGETALL 放在一次 pipeline 中。
+     * 返回 id -> 学生，未命中的 id 不在结果中
+     */
+    public Map<Long, StudentDTO> getStudentsFromHash(Collection<Long> studentIds) {
+        Map<Long, StudentDTO> result = new LinkedHashMap<>();
+        try {
+            List<Long> ids = studentIds.stream().filter(Objects::nonNull).distinct().toList();
+            if (ids.isEmpty()) {
+                return result;
+            }
+            List<Object> entries = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    for (Long id : ids) {
+                        operations.opsForHash().entries(STUDENT_HASH_PREFIX + id);
+                    }
+                    return null;
+                }
+            });
+            for (int i = 0; i < ids.size() && i < entries.size(); i++) {
+                if (entries.get(i) instanceof Map<?, ?> map) {
+                    StudentDTO student = fromHash(ids.get(i), map);
+                    if (student != null) {
+                        result.put(ids.get(i), student);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Redis 不可用时，返回已命中的部分（通常为空），让调用方从数据库补齐
+        }
+        return result;
+    }
+
+    public void deleteStudentHash(Long studentId) {
+        try {
+            redisTemplate.delete(STUDENT_HASH_PREFIX + studentId);
+        } catch (Exception e) {
+            // Redis 不可用时，静默失败，依赖 TTL 过期
+        }
+    }
+
+    /**
+     * 负缓存：记录数据库中不存在的学生 ID，短 TTL 内的重复查询不再回源
+     */
+    public void markStudentMissing(Long studentId) {
+        try {
+            redisTemplate.opsForValue().set(STUDENT_MISSING_PREFIX + studentId, 1, missingTtl);
+        } catch (Exception e) {
+            // Redis 不可用时，静默失败，不影响主流程
+        }
+    }
+
+    public boolean isStudentMarkedMissing(Long studentId) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(STUDENT_MISSING_PREFIX + studentId));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public void clearStudentMissing(Long studentId) {
+        try {
+            redisTemplate.delete(STUDENT_MISSING_PREFIX + studentId);
+        } catch (Exception e) {
+            // Redis 不可用时，静默失败，负缓存会按 TTL 过期
+        }
+    }
+
+    /**
+     * 批量清理负缓存（批量导入后调用），一次 DEL 命令
+     */
+    public void clearStudentsMissing(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(studentIds.stream().map(id -> STUDENT_MISSING_PREFIX + id).toList());
+        } catch (Exception e) {
+            // Redis 不可用时，静默失败，负缓存会按 TTL 过期
+        }
+    }
+
+    private Map<String, Object> toHash(StudentDTO student) {
+        Map<String, Object> hash = new HashMap<>();
+        hash.put("id", student.getId());
+        hash.put("studentNo", student.getStudentNo());
+        hash.put("name", student.getName());
+        hash.put("gender", student.getGender() != null ? student.getGender() : "");
+        hash.put("birthDate", student.getBirthDate() != null ? student.getBirthDate().toString() : "");
+        hash.put("phone", student.getPhone() != null ? student.getPhone() : "");
+        hash.put("email", student.getEmail() != null ? student.getEmail() : "");
+        hash.put("address", student.getAddress() != null ? student.getAddress() : "");
+        hash.put("classId", student.getClassId() != null ? student.getClassId() : "");
+        hash.put("className", student.getClassName() != null ? student.getClassName() : "");
+        hash.put("avatar", student.getAvatar() != null ? student.getAvatar() : "");
+        hash.put("createdAt", student.getCreatedAt() != null ? student.getCreatedAt().toString() : "");
+        hash.put("updatedAt", student.getUpdatedAt() != null ? student.getUpdatedAt().toString() : "");
+        return hash;
+    }
+
+    /**
+     * Hash 中以 "" 表示 null，读取时还原为 null，使从 Hash 读出的 DTO 与从数据库查出的一致
+     * （DTO 会被回传给 save，"" 会被写回数据库）。缺少 birthDate 字段的旧版本 Hash 视为未命中，重新回源
+     */
+    private StudentDTO fromHash(Long studentId, Map<?, ?> hash) {
+        if (hash == null || hash.isEmpty() || !hash.containsKey("birthDate")) {
+            return null;
+        }
+        StudentDTO student = new StudentDTO();
+        student.setId(studentId);
+        student.setStudentNo(stringVal(hash.get("studentNo")));
+        student.setName(stringVal(hash.get("name")));
+        student.setGender(stringVal(hash.get("gender")));
+        student.setPhone(stringVal(hash.get("phone")));
+        student.setEmail(stringVal(hash.get("email")));
+        student.setAddress(stringVal(hash.get("address")));
+        student.setClassName(stringVal(hash.get("className")));
+        student.setAvatar(stringVal(hash.get("avatar")));
+        String classId = stringVal(hash.get("classId"));
+        if (classId != null) {
+            student.setClassId(Long.parseLong(classId));
+        }
+        String birthDate = stringVal(hash.get("birthDate"));
+        if (birthDate != null) {
+            student.setBirthDate(LocalDate.parse(birthDate));
+        }
+        String createdAt = stringVal(hash.get("createdAt"));
+        if (createdAt != null) {
+            student.setCreatedAt(LocalDateTime.parse(createdAt));
+        }
+        String updatedAt = stringVal(hash.get("updatedAt"));
+        if (updatedAt != null) {
+            student.setUpdatedAt(LocalDateTime.parse(updatedAt));
+        }
+        return student;
+    }
+
     private String stringVal(Object value) {
-        return value == null ? "" : value.toString();
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString();
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * 学生详情的读穿透入口：先读 Hash，未命中再在分布式锁保护下回源并回写 Hash
+     *
+     * @param loader 回源加载器（通常为数据库查询），学生不存在时应抛出异常
+     */
+    public StudentDTO getStudentWithLock(Long studentId, Function<Long, StudentDTO> loader) {
+        StudentDTO cached = getStudentFromHash(studentId);
+        if (cached != null) {
+            return cached;
+        }
+
+        // 同一 JVM 内同一学生只有一个请求去抢分布式锁并回源，其余请求共享其结果
+        return studentLoads.execute(studentId, () -> loadWithDistributedLock(studentId, loader));
     }
 
-    public StudentDTO getStudentWithLock(Long studentId, StudentService studentService) {
+    /**
+     * 分布式锁只用于跨节点协调：每个节点每个 key 至多一个线程会走到这里
+     */
+    private StudentDTO loadWithDistributedLock(Long studentId, Function<Long, StudentDTO> loader) {
         // 如果 RedissonClient 不可用，直接查询数据库
         if (redissonClient == null) {
-            return studentService.findById(studentId);
+            return loadAndCache(studentId, loader);
         }
         
         String lockKey = "lock:student:" + studentId;
         RLock lock = redissonClient.getLock(lockKey);
 
+        boolean locked;
         try {
-            if (lock.tryLock(10, 30, TimeUnit.SECONDS)) {
-                try {
-                    StudentDTO student = getStudentFromHash(studentId);
-                    if (student == null) {
-                        student = studentService.findById(studentId);
-                        cacheStudentHash(student);
-                    }
-                    return student;
-                } finally {
-                    lock.unlock();
-                }
-            }
+            locked = lock.tryLock(10, 30, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-        } catch (Exception e) {
-            // Redisson 连接失败时，降级到直接查询
-            // 日志已在 Redisson 内部记录
+            locked = false;
+        } catch (RedisException e) {
+            // 只有 Redisson 连接/超时异常才降级到直接查询
+            return loadAndCache(studentId, loader);
+        }
+
+        if (!locked) {
+            // 等锁超时：持锁节点通常已经回写 Hash，先读一次再决定是否回源
+            StudentDTO student = getStudentFromHash(studentId);
+            return student != null ? student : loadAndCache(studentId, loader);
+        }
+
+        try {
+            // 双重检查：等待锁期间可能已被其他请求回写
+            StudentDTO student = getStudentFromHash(studentId);
+            if (student == null) {
+                // 学生不存在等业务异常直接抛出，不再重复回源
+                student = loadAndCache(studentId, loader);
+            }
+            return student;
+        } finally {
+            try {
+                lock.unlock();
+            } catch (IllegalMonitorStateException | RedisException e) {
+                // 锁已过期或 Redis 断开，由租约时间自动释放
+            }
         }
-        return studentService.findById(studentId);
     }
-}
 
+    private StudentDTO loadAndCache(Long studentId, Function<Long, StudentDTO> loader) {
+        StudentDTO student = loader.apply(studentId);
+        cacheStudentHash(student);
+        return student;
+    }
+}
@@ -0,0 +1,163 @@
+package com.eduvista.service;
+
+import com.eduvista.cache.TwoLevelCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * "students" 缓存的范围索引，用于精确失效。
+ *
+ * 列表/搜索缓存条目只保存有序的学生 ID（见 StudentIdPage），学生详情来自学生 Hash，
+ * 因此更新某个学生不会使任何列表条目过期。条目写入时只需登记所属范围：
+ * - students:scope:list / students:scope:search：所有列表页 / 搜索页缓存 key
+ * - students:scope:filter：带筛选条件或非默认排序的列表页缓存 key
+ *
+ * 新增/删除会使分页整体偏移，清理全部范围；姓名或学号变化会改变搜索命中，清理 search + filter 范围；
+ * 班级、性别、出生日期变化只影响筛选结果，只清理 filter 范围。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentCacheIndex {
+
+    public static final String CACHE_NAME = "students";
+
+    private static final String LIST_SCOPE = "students:scope:list";
+    private static final String SEARCH_SCOPE = "students:scope:search";
+    private static final String FILTER_SCOPE = "students:scope:filter";
+    /** 范围集合的过期时间略长于缓存条目 TTL，避免集合先于条目过期 */
+    private static final Duration SCOPE_TTL = Duration.ofMinutes(35);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheManager cacheManager;
+
+    public enum Scope {
+        LIST, SEARCH, FILTER
+    }
+
+    private static String scopeKey(Scope scope) {
+        return switch (scope) {
+            case LIST -> LIST_SCOPE;
+            case SEARCH -> SEARCH_SCOPE;
+            case FILTER -> FILTER_SCOPE;
+        };
+    }
+
+    private static String generationKey(String scopeKey) {
+        return scopeKey + ":gen";
+    }
+
+    /**
+     * 范围的失效代数，每次清理该范围时加一。回源前后比较代数即可发现回源期间发生的失效；
+     * Redis 不可用时返回 -1，调用方不应缓存结果
+     */
+    public long generation(Scope scope) {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(generationKey(scopeKey(scope)));
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 登记列表/搜索缓存条目所属范围，需在写入缓存之前调用
+     */
+    public void tag(String cacheKey, Scope scope) {
+        String scopeKey = scopeKey(scope);
+        try {
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    operations.opsForSet().add(scopeKey, cacheKey);
+                    operations.expire(scopeKey, SCOPE_TTL);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("登记缓存范围失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 学生信息更新：列表条目只含 ID，不受影响；姓名、学号或邮箱变化时清理搜索和筛选条目
+     * （关键字同时匹配这三个字段，筛选还可按姓名、学号排序），
+     * 班级、性别或出生日期变化时只清理筛选条目
+     */
+    public void evictForUpdate(boolean searchFieldsChanged, boolean filterFieldsChanged) {
+        if (searchFieldsChanged) {
+            evict(List.of(SEARCH_SCOPE, FILTER_SCOPE));
+        } else if (filterFieldsChanged) {
+            evict(List.of(FILTER_SCOPE));
+        }
+    }
+
+    /**
+     * 新增或删除学生：分页整体偏移，清理所有列表和搜索条目
+     */
+    public void evictForMembershipChange() {
+        evict(List.of(LIST_SCOPE, SEARCH_SCOPE, FILTER_SCOPE));
+    }
+
+    private void evict(List<String> scopeKeys) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        try {
+            Set<String> cacheKeys = popMembers(scopeKeys);
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                twoLevelCache.evictAll(cacheKeys);
+            } else {
+                cacheKeys.forEach(cache::evict);
+            }
+        } catch (Exception e) {
+            log.warn("精确失效学生缓存失败，回退为清空整个缓存: {}", e.getMessage());
+            cache.clear();
+        }
+    }
+
+    /**
+     * 在一个 MULTI/EXEC 事务中读取并删除范围集合、递增范围代数，避免读取后、删除前新登记的 key 丢失
+     */
+    private Set<String> popMembers(List<String> scopeKeys) {
+        List<Object> results = stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<Object> execute(RedisOperations operations) throws DataAccessException {
+                operations.multi();
+                for (String scopeKey : scopeKeys) {
+                    operations.opsForSet().members(scopeKey);
+                }
+                operations.delete(scopeKeys);
+                for (String scopeKey : scopeKeys) {
+                    operations.opsForValue().increment(generationKey(scopeKey));
+                }
+                return operations.exec();
+            }
+        });
+        Set<String> members = new HashSet<>();
+        if (results != null) {
+            for (Object result : results) {
+                if (result instanceof Collection<?> collection) {
+                    collection.forEach(member -> members.add(member.toString()));
+                }
+            }
+        }
+        return members;
+    }
+}
@@ -0,0 +1,91 @@
+package com.eduvista.service;
+
+import com.eduvista.dto.StudentDTO;
+import com.eduvista.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 学生 Hash 缓存预热。
+ *
+ * 在应用就绪后于后台线程执行，不阻塞启动：按 ID 倒序分块读取（键集分页，每块一条 SQL 直接投影为 DTO），
+ * 每块通过一次 pipeline 批量写入 Redis，堆内存只占用一块数据。
+ * mode = hot 时只预热最新的 hot-size 个学生（即列表前几页）。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentCacheWarmer {
+
+    /** 预热进度最多每 10 秒输出一条 INFO 日志 */
+    private static final long PROGRESS_LOG_INTERVAL_MS = 10_000;
+
+    private final StudentRepository studentRepository;
+    private final RedisCacheService redisCacheService;
+
+    @Value("${cache.warmup.enabled:true}")
+    private boolean enabled;
+
+    /** all：全部学生；hot：只预热最新的 hot-size 个学生 */
+    @Value("${cache.warmup.mode:all}")
+    private String mode;
+
+    @Value("${cache.warmup.hot-size:1000}")
+    private int hotSize;
+
+    @Value("${cache.warmup.batch-size:500}")
+    private int batchSize;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmup() {
+        if (!enabled) {
+            return;
+        }
+        long limit = "hot".equalsIgnoreCase(mode) ? hotSize : Long.MAX_VALUE;
+        log.info("开始预热Redis缓存: mode={}, batchSize={}", mode, batchSize);
+
+        long start = System.currentTimeMillis();
+        long warmed = 0;
+        long afterId = Long.MAX_VALUE;
+        long lastProgressLog = start;
+        try {
+            while (warmed < limit) {
+                int size = (int) Math.min(batchSize, limit - warmed);
+                List<StudentDTO> chunk = studentRepository.findDTOChunk(afterId, PageRequest.of(0, size));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                redisCacheService.cacheStudentHashes(chunk);
+
+                warmed += chunk.size();
+                afterId = chunk.get(chunk.size() - 1).getId();
+                long now = System.currentTimeMillis();
+                if (now - lastProgressLog >= PROGRESS_LOG_INTERVAL_MS) {
+                    lastProgressLog = now;
+                    log.info("Redis缓存预热进度: 已预热 {} 个学生, {} 个/秒", warmed, rate(warmed, start));
+                }
+                if (chunk.size() < size) {
+                    break;
+                }
+            }
+            log.info("Redis缓存预热完成: 共 {} 个学生, 耗时 {} ms, {} 个/秒",
+                    warmed, System.currentTimeMillis() - start, rate(warmed, start));
+        } catch (Exception e) {
+            log.warn("Redis缓存预热失败（已预热 {} 个），应用将继续运行: {}", warmed, e.getMessage());
+        }
+    }
+
+    private long rate(long count, long start) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        return count * 1000 / elapsed;
+    }
+}
@@ -0,0 +1,83 @@
+package com.eduvista.service;
+
+import com.eduvista.dto.StudentFilter;
+import com.eduvista.event.StudentChangedEvent;
+import com.eduvista.repository.StudentRepository;
+import com.eduvista.repository.StudentSpecifications;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 学生总数缓存，代替每次分页查询附带的 COUNT(*)。
+ *
+ * - 超过 refresh-interval 的条目在下次读取时后台刷新，调用方仍拿到旧值
+ * - 超过 max-staleness 的条目强制同步重新统计（陈旧上限）
+ * - 新增/删除学生（包括其他节点，经由 StudentChangedEvent）时增量修正总数；
+ *   关键字搜索和筛选条件的计数无法增量判断，只受陈旧上限约束
+ */
+@Component
+public class StudentCountCache {
+
+    /** 全部学生总数使用的 key（关键字搜索用关键字本身、筛选用 StudentFilter 作为 key） */
+    private static final String TOTAL_KEY = "";
+
+    private final StudentRepository studentRepository;
+    /** 值为 AtomicLong：增量修正直接改值，不算作写入，不会推迟陈旧上限 */
+    private final LoadingCache<Object, AtomicLong> counts;
+
+    public StudentCountCache(StudentRepository studentRepository,
+                             @Value("${student.count.refresh-interval:10s}") Duration refreshInterval,
+                             @Value("${student.count.max-staleness:60s}") Duration maxStaleness,
+                             @Value("${student.count.maximum-size:1000}") long maximumSize) {
+        this.studentRepository = studentRepository;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshInterval)
+                .expireAfterWrite(maxStaleness)
+                .build(this::load);
+    }
+
+    public long total() {
+        return counts.get(TOTAL_KEY).get();
+    }
+
+    public long countByKeyword(String keyword) {
+        if (keyword == null || keyword.isEmpty()) {
+            return total();
+        }
+        return counts.get(keyword).get();
+    }
+
+    /**
+     * 筛选条件下的学生数（与排序无关）
+     */
+    public long countMatching(StudentFilter filter) {
+        return counts.get(filter.withoutSort()).get();
+    }
+
+    private AtomicLong load(Object key) {
+        if (key instanceof StudentFilter filter) {
+            return new AtomicLong(studentRepository.count(StudentSpecifications.matching(filter)));
+        }
+        return new AtomicLong(TOTAL_KEY.equals(key) ? studentRepository.count() : studentRepository.countByKeyword((String) key));
+    }
+
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        long delta = switch (event.getType()) {
+            case CREATED -> event.getStudentIds().size();
+            case DELETED -> -event.getStudentIds().size();
+            default -> 0;
+        };
+        AtomicLong total = delta != 0 ? counts.getIfPresent(TOTAL_KEY) : null;
+        if (total != null) {
+            total.updateAndGet(count -> Math.max(0, count + delta));
+        }
+    }
+}
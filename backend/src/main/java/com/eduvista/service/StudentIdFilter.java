@@ -0,0 +1,163 @@
+package com.eduvista.service;
+
+import com.eduvista.event.StudentChangedEvent;
+import com.eduvista.event.StudentEventsResubscribedEvent;
+import com.eduvista.repository.StudentRepository;
+import com.eduvista.util.LongBloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 已存在学生 ID 的布隆过滤器，用于在查询前拦截不存在的 ID（爬虫遍历、失效链接）。
+ *
+ * - 启动完成后在后台全量构建，构建完成前全部放行
+ * - 新增学生（包括其他节点新增，经由 StudentChangedEvent）实时加入
+ * - 删除无法从布隆过滤器移除，由短 TTL 的负缓存兜底；定期重建以清理已删除的 ID
+ * - 构建时记录数据库中的最大 ID（水位线）：水位线以内的 ID 都来自数据库全量扫描，未命中即可直接拒绝；
+ *   水位线以上的 ID 只能靠 Pub/Sub 事件加入，消息可能丢失，未命中时由调用方经负缓存和数据库确认，确认存在后通过 add 补入
+ * - 事件频道断线重连后，在下一次重建完成前所有未命中都需要确认，并立即触发重建
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentIdFilter {
+
+    private final StudentRepository studentRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${student.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${student.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    /**
+     * 过滤器与构建时的水位线一起切换，避免读到新水位线和旧过滤器
+     */
+    private record Snapshot(LongBloomFilter filter, long watermark) {
+    }
+
+    private final Object lock = new Object();
+    /** 构建完成前为 null，全部放行 */
+    private volatile Snapshot current;
+    /** 重建期间新增的 ID 同时写入新旧两个过滤器，避免切换时丢失 */
+    private LongBloomFilter building;
+    /** 事件频道重连次数；与最近一次重建开始时的值不同，说明之后可能丢过事件，不直接拒绝 */
+    private final AtomicLong resubscriptions = new AtomicLong();
+    private volatile long rebuiltThrough = 0;
+
+    /**
+     * false 表示本节点未见过该 ID（其他节点新增的事件丢失时也会返回 false）；过滤器尚未构建完成时总是返回 true
+     */
+    public boolean mightExist(Long studentId) {
+        if (studentId == null) {
+            return false;
+        }
+        Snapshot snapshot = current;
+        return snapshot == null || snapshot.filter().mightContain(studentId);
+    }
+
+    /**
+     * true 表示该 ID 一定不存在，无需查询数据库：过滤器未命中、不超过水位线，且事件同步可靠
+     */
+    public boolean definitelyAbsent(Long studentId) {
+        if (studentId == null) {
+            return true;
+        }
+        Snapshot snapshot = current;
+        return snapshot != null && rebuiltThrough == resubscriptions.get()
+                && studentId <= snapshot.watermark() && !snapshot.filter().mightContain(studentId);
+    }
+
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.getType() != StudentChangedEvent.Type.CREATED) {
+            return;
+        }
+        event.getStudentIds().forEach(this::add);
+    }
+
+    @Async
+    @EventListener
+    public void onResubscribed(StudentEventsResubscribedEvent event) {
+        resubscriptions.incrementAndGet();
+        rebuild();
+    }
+
+    /**
+     * 加入一个已确认存在的 ID
+     */
+    public void add(Long studentId) {
+        synchronized (lock) {
+            Snapshot snapshot = current;
+            if (snapshot != null) {
+                snapshot.filter().add(studentId);
+            }
+            if (building != null) {
+                building.add(studentId);
+            }
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * 同一时间只允许一个重建，避免两个构建中的过滤器互相覆盖 building
+     */
+    @Scheduled(initialDelayString = "${student.bloom.rebuild-interval:3600000}",
+            fixedDelayString = "${student.bloom.rebuild-interval:3600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        // 在扫描开始前读取：扫描期间再次断线重连的，由下一次重建处理
+        long resubscribed = resubscriptions.get();
+        try {
+            long count = studentRepository.count();
+            LongBloomFilter next = new LongBloomFilter(Math.max(expectedInsertions, count * 2), falsePositiveRate);
+            synchronized (lock) {
+                building = next;
+            }
+
+            AtomicLong added = new AtomicLong();
+            AtomicLong maxId = new AtomicLong();
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                try (Stream<Long> ids = studentRepository.streamAllIds()) {
+                    ids.forEach(id -> {
+                        next.add(id);
+                        added.incrementAndGet();
+                        maxId.accumulateAndGet(id, Math::max);
+                    });
+                }
+            });
+
+            synchronized (lock) {
+                current = new Snapshot(next, maxId.get());
+                building = null;
+            }
+            rebuiltThrough = resubscribed;
+            log.info("学生ID布隆过滤器构建完成: {} 个ID，水位线 {}，耗时 {} ms",
+                    added.get(), maxId.get(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            synchronized (lock) {
+                building = null;
+            }
+            log.warn("学生ID布隆过滤器构建失败，保持现有过滤器: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.eduvista.service;
+
+import com.eduvista.dto.StudentDTO;
+import com.eduvista.dto.StudentImportResult;
+import com.eduvista.entity.Class;
+import com.eduvista.event.StudentChangedEvent;
+import com.eduvista.event.StudentEventPublisher;
+import com.eduvista.kafka.KafkaProducer;
+import com.eduvista.repository.ClassRepository;
+import com.eduvista.repository.StudentRepository;
+import com.eduvista.util.CsvUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 学生 CSV 批量导入。
+ *
+ * - 逐行流式解析上传文件，每攒够 batch-size 行写入一次，内存只占用一批数据
+ * - 班级只在开始时查询一次；学号/邮箱唯一性按批次一次查询校验
+ * - 每批一个事务，通过 JdbcTemplate.batchUpdate 写入（配合 rewriteBatchedStatements=true 合并为多值 INSERT），
+ *   自增主键随批次一起返回；整批失败时逐行重试，只有失败的行记为错误
+ * - 每批发布一次 CREATED 事件、批量发送 Kafka 消息；列表缓存在导入结束后只失效一次
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO students "
+            + "(student_no, name, gender, birth_date, phone, email, address, class_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("studentNo", "name", "email");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final StudentRepository studentRepository;
+    private final ClassRepository classRepository;
+    private final StudentCacheIndex studentCacheIndex;
+    private final RedisCacheService redisCacheService;
+    private final StudentEventPublisher studentEventPublisher;
+
+    @Autowired(required = false)
+    private KafkaProducer kafkaProducer;
+
+    @Value("${student.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 导入 CSV。表头需包含 studentNo、name、email 以及 classNo 或 classId，
+     * 可选 gender、birthDate（yyyy-MM-dd）、phone、address
+     *
+     * @throws IllegalArgumentException 文件为空或缺少必需的列
+     */
+    public StudentImportResult importCsv(InputStream inputStream) throws IOException {
+        long start = System.currentTimeMillis();
+        StudentImportResult result = new StudentImportResult();
+        ImportContext context = new ImportContext(classRepository.findAll());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV 文件为空");
+            }
+            context.columns = parseHeader(header);
+
+            List<Row> batch = new ArrayList<>(batchSize);
+            long lineNo = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setTotalRows(result.getTotalRows() + 1);
+                Row row = parseRow(lineNo, CsvUtils.parseLine(line), context, result);
+                if (row != null) {
+                    batch.add(row);
+                    if (batch.size() >= batchSize) {
+                        insertBatch(batch, result);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                insertBatch(batch, result);
+            }
+        } finally {
+            // 分页整体偏移，导入结束后只失效一次（包括中途失败时已写入的部分）
+            if (result.getImported() > 0) {
+                studentCacheIndex.evictForMembershipChange();
+            }
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        log.info("学生批量导入完成: 共 {} 行, 成功 {}, 失败 {}, 耗时 {} ms, {} 行/秒",
+                result.getTotalRows(), result.getImported(), result.getFailed(), elapsed,
+                result.getTotalRows() * 1000L / elapsed);
+        return result;
+    }
+
+    private Map<String, Integer> parseHeader(String header) {
+        // 去掉 Excel 导出的 UTF-8 BOM
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvUtils.parseLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .collect(Collectors.toList());
+        if (!columns.containsKey("classNo") && !columns.containsKey("classId")) {
+            missing.add("classNo/classId");
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV 缺少列: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    /**
+     * 校验单行，返回 null 表示该行有错误（已记入 result）
+     */
+    private Row parseRow(long lineNo, List<String> fields, ImportContext context, StudentImportResult result) {
+        String studentNo = context.field(fields, "studentNo");
+        String name = context.field(fields, "name");
+        String email = context.field(fields, "email");
+        if (studentNo == null || name == null || email == null) {
+            result.addError(lineNo, studentNo, "学号、姓名和邮箱不能为空");
+            return null;
+        }
+        if (!email.contains("@")) {
+            result.addError(lineNo, studentNo, "邮箱格式错误");
+            return null;
+        }
+
+        Long classId = context.resolveClass(fields);
+        if (classId == null) {
+            result.addError(lineNo, studentNo, "班级不存在");
+            return null;
+        }
+
+        StudentDTO student = new StudentDTO();
+        student.setStudentNo(studentNo);
+        student.setName(name);
+        student.setEmail(email);
+        student.setGender(context.field(fields, "gender"));
+        student.setPhone(context.field(fields, "phone"));
+        student.setAddress(context.field(fields, "address"));
+        student.setClassId(classId);
+        String birthDate = context.field(fields, "birthDate");
+        if (birthDate != null) {
+            try {
+                student.setBirthDate(LocalDate.parse(birthDate));
+            } catch (DateTimeParseException e) {
+                result.addError(lineNo, studentNo, "出生日期格式错误，应为 yyyy-MM-dd");
+                return null;
+            }
+        }
+
+        if (!context.studentNos.add(studentNo)) {
+            result.addError(lineNo, studentNo, "学号在文件中重复");
+            return null;
+        }
+        if (!context.emails.add(email)) {
+            result.addError(lineNo, studentNo, "邮箱在文件中重复");
+            return null;
+        }
+        return new Row(lineNo, student);
+    }
+
+    private void insertBatch(List<Row> batch, StudentImportResult result) {
+        // 与数据库中已有学生的唯一性冲突：每批各一条 IN 查询
+        Set<String> existingNos = new HashSet<>(studentRepository.findExistingStudentNos(
+                batch.stream().map(row -> row.student().getStudentNo()).collect(Collectors.toList())));
+        Set<String> existingEmails = new HashSet<>(studentRepository.findExistingEmails(
+                batch.stream().map(row -> row.student().getEmail()).collect(Collectors.toList())));
+        List<Row> rows = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            StudentDTO student = row.student();
+            if (existingNos.contains(student.getStudentNo())) {
+                result.addError(row.line(), student.getStudentNo(), "学号已存在");
+            } else if (existingEmails.contains(student.getEmail())) {
+                result.addError(row.line(), student.getStudentNo(), "邮箱已存在");
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids;
+        try {
+            ids = insert(rows);
+        } catch (DataAccessException e) {
+            log.warn("批量写入学生失败（{} 行），改为逐行写入: {}", rows.size(), e.getMostSpecificCause().getMessage());
+            rows = insertOneByOne(rows, result);
+            ids = rows.stream().map(row -> row.student().getId()).collect(Collectors.toList());
+            if (ids.isEmpty()) {
+                return;
+            }
+        }
+        result.setImported(result.getImported() + ids.size());
+
+        List<StudentDTO> students = rows.stream().map(Row::student).collect(Collectors.toList());
+        redisCacheService.clearStudentsMissing(ids);
+        studentEventPublisher.publish(StudentChangedEvent.Type.CREATED, ids);
+        if (kafkaProducer != null) {
+            kafkaProducer.sendStudentRegisterMessages(students);
+        }
+    }
+
+    /**
+     * 批量写入失败时逐行写入，只有写不进去的行记为错误（如并发导入造成的唯一键冲突），返回写入成功的行。
+     * 连接等非数据问题时剩余行也写不进去，直接全部记为错误，不再逐行等待超时
+     */
+    private List<Row> insertOneByOne(List<Row> rows, StudentImportResult result) {
+        List<Row> inserted = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            try {
+                insert(List.of(row));
+                inserted.add(row);
+            } catch (DuplicateKeyException e) {
+                result.addError(row.line(), row.student().getStudentNo(), "学号或邮箱已存在");
+            } catch (DataIntegrityViolationException e) {
+                result.addError(row.line(), row.student().getStudentNo(),
+                        "写入数据库失败: " + e.getMostSpecificCause().getMessage());
+            } catch (DataAccessException e) {
+                for (Row failed : rows.subList(i, rows.size())) {
+                    result.addError(failed.line(), failed.student().getStudentNo(),
+                            "写入数据库失败: " + e.getMostSpecificCause().getMessage());
+                }
+                break;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * 在一个事务中批量写入，返回自增主键（与 rows 顺序一致）
+     */
+    private List<Long> insert(List<Row> rows) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        return template.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            StudentDTO student = rows.get(i).student();
+                            ps.setString(1, student.getStudentNo());
+                            ps.setString(2, student.getName());
+                            ps.setString(3, student.getGender());
+                            ps.setObject(4, student.getBirthDate());
+                            ps.setString(5, student.getPhone());
+                            ps.setString(6, student.getEmail());
+                            ps.setString(7, student.getAddress());
+                            ps.setLong(8, student.getClassId());
+                            ps.setObject(9, now);
+                            ps.setObject(10, now);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    },
+                    keyHolder);
+
+            List<Long> ids = new ArrayList<>(rows.size());
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < keys.size(); i++) {
+                Long id = ((Number) keys.get(i).values().iterator().next()).longValue();
+                rows.get(i).student().setId(id);
+                ids.add(id);
+            }
+            return ids;
+        });
+    }
+
+    private record Row(long line, StudentDTO student) {
+    }
+
+    /**
+     * 单次导入的状态：列位置、班级映射、文件内已出现的学号/邮箱
+     */
+    private static class ImportContext {
+        private final Map<String, Long> classIdsByNo = new HashMap<>();
+        private final Set<Long> classIds = new HashSet<>();
+        private final Set<String> studentNos = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private Map<String, Integer> columns;
+
+        ImportContext(List<Class> classes) {
+            for (Class clazz : classes) {
+                classIdsByNo.put(clazz.getClassNo(), clazz.getId());
+                classIds.add(clazz.getId());
+            }
+        }
+
+        /**
+         * 读取字段，列不存在或值为空时返回 null
+         */
+        String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+
+        Long resolveClass(List<String> fields) {
+            String classNo = field(fields, "classNo");
+            if (classNo != null) {
+                return classIdsByNo.get(classNo);
+            }
+            String classId = field(fields, "classId");
+            if (classId == null) {
+                return null;
+            }
+            try {
+                Long id = Long.valueOf(classId);
+                return classIds.contains(id) ? id : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
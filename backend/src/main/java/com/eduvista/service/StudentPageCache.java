@@ -0,0 +1,126 @@
+package com.eduvista.service;
+
+import com.eduvista.cache.CachedEntry;
+import com.eduvista.cache.StudentIdPage;
+import com.eduvista.config.CacheTtlProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 学生列表/搜索结果的缓存读取，缓存值为有序 ID 列表（StudentIdPage），由调用方批量组装学生详情。
+ *
+ * - 未命中：回源查询 ID、登记失效范围（StudentCacheIndex）、写入缓存
+ * - 命中但已过软过期点（TTL × cache.refresh-ahead-ratio）：按随存活时间线性增大的概率触发一次后台刷新，
+ *   本次调用仍返回当前值，避免热点分页在同一时刻硬过期后集中回源
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentPageCache {
+
+    private final CacheManager cacheManager;
+    private final StudentCacheIndex studentCacheIndex;
+    private final CacheTtlProperties cacheTtlProperties;
+    private final PlatformTransactionManager transactionManager;
+
+    /** 正在后台刷新的 key，保证每个节点每个 key 同时只有一个刷新任务 */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /** 刷新是尽力而为的：队列满时拒绝提交（见 refreshAsync），条目到期后由正常回源兜底 */
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(
+            1, 2, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(100),
+            runnable -> {
+                Thread thread = new Thread(runnable, "student-cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    public StudentIdPage get(String key, StudentCacheIndex.Scope scope, Supplier<StudentIdPage> loader) {
+        Cache cache = cacheManager.getCache(StudentCacheIndex.CACHE_NAME);
+        if (cache == null) {
+            return loader.get();
+        }
+
+        Cache.ValueWrapper cached = cache.get(key);
+        // 旧版本缓存的整页 PageResponse 视为未命中，回源后覆盖
+        if (cached != null && cached.get() instanceof CachedEntry entry
+                && entry.getValue() instanceof StudentIdPage page) {
+            if (shouldRefreshEarly(entry)) {
+                refreshAsync(cache, key, scope, loader);
+            }
+            return page;
+        }
+
+        return load(cache, key, scope, loader);
+    }
+
+    private StudentIdPage load(Cache cache, String key, StudentCacheIndex.Scope scope, Supplier<StudentIdPage> loader) {
+        // 回源前记录范围代数：回源读取到写入缓存之间若有写操作提交并清理了该范围，代数会变化
+        long generation = studentCacheIndex.generation(scope);
+        StudentIdPage page = loader.get();
+        if (generation < 0) {
+            return page;
+        }
+        studentCacheIndex.tag(key, scope);
+        cache.put(key, new CachedEntry(page, System.currentTimeMillis()));
+        // 写入后再比较一次：清理发生在写入之前时，本次结果可能是旧数据，删除刚写入的条目
+        if (studentCacheIndex.generation(scope) != generation) {
+            cache.evict(key);
+        }
+        return page;
+    }
+
+    private boolean shouldRefreshEarly(CachedEntry entry) {
+        long ttl = cacheTtlProperties.ttlFor(StudentCacheIndex.CACHE_NAME).toMillis();
+        long softTtl = (long) (ttl * cacheTtlProperties.getRefreshAheadRatio());
+        long age = System.currentTimeMillis() - entry.getCreatedAt();
+        if (age < softTtl || ttl <= softTtl) {
+            return false;
+        }
+        double probability = (double) (age - softTtl) / (ttl - softTtl);
+        return ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+    private void refreshAsync(Cache cache, String key, StudentCacheIndex.Scope scope, Supplier<StudentIdPage> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    TransactionTemplate template = new TransactionTemplate(transactionManager);
+                    template.setReadOnly(true);
+                    template.executeWithoutResult(status -> load(cache, key, scope, loader));
+                } catch (Exception e) {
+                    log.warn("后台刷新学生缓存失败: key={}, {}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,223 @@
+package com.eduvista.service;
+
+import com.eduvista.dto.StudentDTO;
+import com.eduvista.dto.StudentSuggestion;
+import com.eduvista.event.StudentChangedEvent;
+import com.eduvista.repository.StudentRepository;
+import com.eduvista.util.NGramIndex;
+import com.eduvista.util.PrefixIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 学生搜索倒排索引（姓名、学号、邮箱），代替无法走索引的 LIKE %keyword% 全表扫描；
+ * 同时维护学号/姓名前缀索引，用于搜索框自动补全。
+ *
+ * - 启动完成后在后台全量构建，构建完成前 search / suggest 返回 null，调用方回退到 SQL 查询
+ * - 新增/修改/删除学生（包括其他节点，经由 StudentChangedEvent）时增量更新
+ * - 构建期间发生变化的 ID 记录下来，构建时跳过，避免流式读到的旧数据覆盖新数据
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentSearchIndex {
+
+    private static final int NAME = 0;
+    private static final int STUDENT_NO = 1;
+    /** rank() 的取值个数 */
+    private static final int RANK_LEVELS = 7;
+
+    private final StudentRepository studentRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${student.search-index.enabled:true}")
+    private boolean enabled;
+
+    /** 前缀索引最多收录的学生数，限制内存占用 */
+    @Value("${student.suggest.max-students:500000}")
+    private int suggestMaxStudents;
+
+    private final Object lock = new Object();
+    private volatile Indexes index;
+    private volatile Indexes building;
+    /** 构建期间被事件更新过的 ID */
+    private final Set<Long> touched = new HashSet<>();
+
+    /**
+     * 排序后的前 limit 个 ID 与匹配总数
+     */
+    public record Ranked(List<Long> ids, int total) {
+    }
+
+    /**
+     * 按相关度返回前 limit 个匹配的学生 ID：学号/姓名完全匹配 > 前缀匹配 > 姓名包含 > 学号包含 > 邮箱包含，同级按 ID 倒序。
+     * 相关度只有 RANK_LEVELS 级，按级分桶且每桶最多保留 limit 个，不对全部结果排序。索引未就绪时返回 null
+     */
+    public Ranked search(String keyword, int limit) {
+        Indexes current = index;
+        if (current == null) {
+            return null;
+        }
+        String query = NGramIndex.normalize(keyword);
+        Map<Long, String[]> matches = current.ngram().search(query);
+
+        List<List<Long>> levels = new ArrayList<>(RANK_LEVELS);
+        for (int i = 0; i < RANK_LEVELS; i++) {
+            levels.add(new ArrayList<>());
+        }
+        // 倒排表按 ID 倒序返回，桶内保持 ID 倒序
+        matches.forEach((id, fields) -> {
+            List<Long> level = levels.get(rank(fields, query));
+            if (level.size() < limit) {
+                level.add(id);
+            }
+        });
+
+        List<Long> ids = new ArrayList<>(Math.min(limit, matches.size()));
+        for (List<Long> level : levels) {
+            for (Long id : level) {
+                if (ids.size() >= limit) {
+                    return new Ranked(ids, matches.size());
+                }
+                ids.add(id);
+            }
+        }
+        return new Ranked(ids, matches.size());
+    }
+
+    /**
+     * 学号或姓名以 prefix 开头的前 limit 个学生；索引未就绪时返回 null
+     */
+    public List<StudentSuggestion> suggest(String prefix, int limit) {
+        Indexes current = index;
+        return current == null ? null : current.prefix().prefix(prefix, limit);
+    }
+
+    private static int rank(String[] fields, String query) {
+        String name = fields[NAME];
+        String studentNo = fields[STUDENT_NO];
+        if (studentNo.equals(query)) {
+            return 0;
+        }
+        if (name.equals(query)) {
+            return 1;
+        }
+        if (studentNo.startsWith(query)) {
+            return 2;
+        }
+        if (name.startsWith(query)) {
+            return 3;
+        }
+        if (name.contains(query)) {
+            return 4;
+        }
+        if (studentNo.contains(query)) {
+            return 5;
+        }
+        return 6;
+    }
+
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        // 尚未开始构建时无需处理，构建时会读到已提交的数据
+        if (!enabled || (index == null && building == null)) {
+            return;
+        }
+        // 数据库读取放在锁外，事件在事务提交后发布，读到的是最新数据
+        List<StudentDTO> students = event.getType() == StudentChangedEvent.Type.DELETED
+                ? List.of()
+                : studentRepository.findDTOsByIds(event.getStudentIds());
+        synchronized (lock) {
+            if (building != null) {
+                touched.addAll(event.getStudentIds());
+            }
+            for (Indexes target : new Indexes[]{index, building}) {
+                if (target == null) {
+                    continue;
+                }
+                event.getStudentIds().forEach(target::remove);
+                students.forEach(student -> target.put(student.getId(), student.getName(),
+                        student.getStudentNo(), student.getEmail()));
+            }
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            build();
+        }
+    }
+
+    private void build() {
+        long start = System.currentTimeMillis();
+        Indexes next = new Indexes(new NGramIndex(), new PrefixIndex(suggestMaxStudents));
+        synchronized (lock) {
+            building = next;
+            touched.clear();
+        }
+        try {
+            AtomicLong added = new AtomicLong();
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = studentRepository.streamSearchFields()) {
+                    rows.forEach(row -> {
+                        Long id = (Long) row[0];
+                        synchronized (lock) {
+                            if (!touched.contains(id)) {
+                                next.put(id, (String) row[1], (String) row[2], (String) row[3]);
+                                added.incrementAndGet();
+                            }
+                        }
+                    });
+                }
+            });
+
+            synchronized (lock) {
+                index = next;
+                building = null;
+                touched.clear();
+            }
+            log.info("学生搜索索引构建完成: {} 个学生，耗时 {} ms", added.get(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            synchronized (lock) {
+                building = null;
+                touched.clear();
+            }
+            log.warn("学生搜索索引构建失败，搜索将继续使用数据库查询: {}", e.getMessage());
+        }
+    }
+
+    private record Indexes(NGramIndex ngram, PrefixIndex prefix) {
+
+        void put(Long id, String name, String studentNo, String email) {
+            // 字段顺序与 NAME / STUDENT_NO 常量一致
+            ngram.put(id, name, studentNo, email);
+            if (!prefix.put(id, studentNo, name)) {
+                log.debug("前缀索引已达容量上限，学生 {} 不参与自动补全", id);
+            }
+        }
+
+        void remove(Long id) {
+            ngram.remove(id);
+            prefix.remove(id);
+        }
+    }
+}
@@ -1,40 +1,58 @@
 package com.eduvista.service;
 
+import com.eduvista.cache.StudentIdPage;
+import com.eduvista.util.PageCursor;
 import com.eduvista.util.PageResponse;
 import com.eduvista.dto.StudentDTO;
+import com.eduvista.dto.StudentFilter;
+import com.eduvista.dto.StudentSuggestion;
 import com.eduvista.entity.Class;
 import com.eduvista.entity.Student;
+import com.eduvista.event.StudentChangedEvent;
+import com.eduvista.event.StudentEventPublisher;
 import com.eduvista.kafka.KafkaProducer;
 import com.eduvista.repository.ClassRepository;
 import com.eduvista.repository.StudentRepository;
+import com.eduvista.repository.StudentSpecifications;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
-@CacheConfig(cacheNames = "students") // 统一缓存命名空间
 public class StudentService {
 
     private final StudentRepository studentRepository;
     private final ClassRepository classRepository;
+    private final StudentCacheIndex studentCacheIndex;
+    private final StudentPageCache studentPageCache;
+    private final RedisCacheService redisCacheService;
+    private final StudentIdFilter studentIdFilter;
+    private final StudentEventPublisher studentEventPublisher;
+    private final StudentCountCache studentCountCache;
+    private final StudentSearchIndex studentSearchIndex;
     
     @Autowired(required = false)
     private KafkaProducer kafkaProducer;
 
     /**
-     * 将 Entity 转换为 DTO 的私有方法
+     * 将 Entity 转换为 DTO（只用于保存后的返回值；查询走 StudentRepository.DTO_SELECT 投影）
      */
     private StudentDTO convertToDTO(Student student) {
         StudentDTO dto = new StudentDTO();
@@ -66,74 +84,261 @@ public class StudentService {
         return student;
     }
 
-    @Cacheable(key = "'page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    /**
+     * 分页获取学生。ID 查询不执行 COUNT（多取一行判断 hasNext）；
+     * withTotals 为 true 时总数取自 StudentCountCache（近似值，陈旧程度受配置约束），
+     * 为 false 时为 slice 模式，totalElements / totalPages 返回 -1
+     */
+    public PageResponse<StudentDTO> findAll(Pageable pageable, boolean withTotals) {
+        String key = "page:" + pageable.getPageNumber() + ":size:" + pageable.getPageSize();
+        StudentIdPage idPage = studentPageCache.get(key, StudentCacheIndex.Scope.LIST,
+                () -> StudentIdPage.of(studentRepository.findIdSlice(pageable)));
+        return toPageResponse(idPage, withTotals ? studentCountCache.total() : -1);
+    }
+
     public PageResponse<StudentDTO> findAll(Pageable pageable) {
-        // 1. 从数据库查出 Page<Student>
-        Page<Student> page = studentRepository.findAll(pageable);
-
-        // 2. 转换数据列表
-        List<StudentDTO> dtoList = page.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-
-        // 3. 封装并返回（存入 Redis 的将是 PageResponse<StudentDTO>）
-        return new PageResponse<>(
-                dtoList,
-                page.getTotalElements(),
-                page.getTotalPages(),
-                page.getSize(),
-                page.getNumber()
-        );
+        return findAll(pageable, true);
     }
 
     /**
-     * 获取所有学生（不分页）
+     * 获取所有学生（不分页），一条 SQL 投影为 DTO
      */
     public List<StudentDTO> findAll() {
-        return studentRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return studentRepository.findAllDTOs();
+    }
+
+    /**
+     * 流式遍历学生（只读事务内逐行读取，不经过列表缓存），内存占用与学生数量无关；返回遍历的学生数
+     *
+     * @param classId 班级过滤，null 表示全部
+     * @param keyword 姓名/学号关键字过滤，null 或空表示全部
+     */
+    @Transactional(readOnly = true)
+    public long forEachStudent(Long classId, String keyword, Consumer<StudentDTO> action) {
+        String filter = keyword != null && !keyword.isEmpty() ? keyword : null;
+        long count = 0;
+        try (Stream<StudentDTO> students = studentRepository.streamDTOs(classId, filter)) {
+            Iterator<StudentDTO> iterator = students.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
     }
 
-    @Cacheable(key = "'id:' + #id")
+    /**
+     * 学生详情：读穿透 Redis 学生 Hash（student:hash:{id}），未命中时加锁回源数据库并回写。
+     * 布隆过滤器未命中且不超过水位线的 ID 直接拒绝，不访问 Redis 和数据库；
+     * 水位线以上（其他节点新增学生的事件可能丢失）的未命中跳过 Hash 和分布式锁，由负缓存 + 数据库确认，确认存在后补入过滤器
+     */
     public StudentDTO findById(Long id) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("学生不存在"));
-        return convertToDTO(student);
+        if (studentIdFilter.definitelyAbsent(id)) {
+            throw new RuntimeException("学生不存在");
+        }
+        if (!studentIdFilter.mightExist(id)) {
+            StudentDTO student = loadById(id);
+            studentIdFilter.add(id);
+            redisCacheService.cacheStudentHash(student);
+            return student;
+        }
+        return redisCacheService.getStudentWithLock(id, this::loadById);
+    }
+
+    private StudentDTO loadById(Long id) {
+        // 布隆过滤器误判或已删除的 ID，由负缓存拦截
+        if (redisCacheService.isStudentMarkedMissing(id)) {
+            throw new RuntimeException("学生不存在");
+        }
+        StudentDTO student = studentRepository.findDTOById(id).orElse(null);
+        if (student == null) {
+            redisCacheService.markStudentMissing(id);
+            throw new RuntimeException("学生不存在");
+        }
+        return student;
     }
 
     /**
-     * 搜索学生
+     * 搜索学生：优先使用内存倒排索引（按相关度排序），索引构建完成前回退到数据库 LIKE 查询（总数规则同 findAll）
      */
-    @Cacheable(key = "'search:' + #keyword + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PageResponse<StudentDTO> search(String keyword, Pageable pageable, boolean withTotals) {
+        int limit = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        StudentSearchIndex.Ranked ranked = studentSearchIndex.search(keyword, limit);
+        if (ranked != null) {
+            return toRankedPage(ranked, pageable, withTotals);
+        }
+        String key = "search:" + keyword + ":page:" + pageable.getPageNumber() + ":size:" + pageable.getPageSize();
+        StudentIdPage idPage = studentPageCache.get(key, StudentCacheIndex.Scope.SEARCH,
+                () -> StudentIdPage.of(studentRepository.searchIdSliceByKeyword(keyword, pageable)));
+        return toPageResponse(idPage, withTotals ? studentCountCache.countByKeyword(keyword) : -1);
+    }
+
     public PageResponse<StudentDTO> search(String keyword, Pageable pageable) {
-        Page<Student> page = studentRepository.searchByKeyword(keyword, pageable);
-        
-        List<StudentDTO> dtoList = page.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-
-        return new PageResponse<>(
-                dtoList,
-                page.getTotalElements(),
-                page.getTotalPages(),
-                page.getSize(),
-                page.getNumber()
+        return search(keyword, pageable, true);
+    }
+
+    /**
+     * 按筛选条件（班级、性别、出生日期范围、关键字）和排序分页，ID 页缓存 key 由规范化的筛选条件组成（总数规则同 findAll）
+     */
+    public PageResponse<StudentDTO> findFiltered(StudentFilter filter, int page, int size, boolean withTotals) {
+        String key = "filter:" + filter.cacheKey() + ":page:" + page + ":size:" + size;
+        Pageable pageable = PageRequest.of(page, size, filter.toSort());
+        StudentIdPage idPage = studentPageCache.get(key, StudentCacheIndex.Scope.FILTER,
+                () -> StudentIdPage.of(studentRepository.findIds(StudentSpecifications.matching(filter), pageable)));
+        PageResponse<StudentDTO> response = toPageResponse(idPage, withTotals ? studentCountCache.countMatching(filter) : -1);
+        // 游标只适用于按 ID 倒序的列表
+        response.setNextCursor(null);
+        return response;
+    }
+
+    /**
+     * 搜索框自动补全：学号或姓名以 prefix 开头的前 limit 个学生，索引构建完成前回退到数据库前缀查询
+     */
+    public List<StudentSuggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        List<StudentSuggestion> suggestions = studentSearchIndex.suggest(prefix, limit);
+        if (suggestions != null) {
+            return suggestions;
+        }
+        return studentRepository.suggestByPrefix(escapeLike(prefix.trim()), PageRequest.of(0, limit));
+    }
+
+    /**
+     * 转义 LIKE 通配符（MySQL 默认以反斜杠为转义符），避免输入 % 或 _ 时前缀查询退化为全表扫描
+     */
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * 对索引返回的前 offset + size 个结果分页。结果按相关度而非 ID 排序，因此不提供 nextCursor
+     */
+    private PageResponse<StudentDTO> toRankedPage(StudentSearchIndex.Ranked ranked, Pageable pageable, boolean withTotals) {
+        int size = pageable.getPageSize();
+        List<Long> ids = ranked.ids();
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + size, ids.size());
+        long total = ranked.total();
+        PageResponse<StudentDTO> response = new PageResponse<>(
+                findByIds(ids.subList(from, to)),
+                withTotals ? total : -1,
+                withTotals ? (int) ((total + size - 1) / size) : -1,
+                size,
+                pageable.getPageNumber()
         );
+        response.setHasNext(pageable.getOffset() + size < total);
+        return response;
+    }
+
+    /**
+     * 键集（游标）分页：按 ID 倒序取 afterId 之后的 size 条，多取一条用于判断是否有下一页。
+     * 不执行 COUNT，totalElements / totalPages / number 返回 -1；结果不缓存（深分页命中率低）
+     *
+     * @param afterId 上一页最后一条的 ID，null 表示第一页
+     */
+    public PageResponse<StudentDTO> findAfter(String keyword, Long afterId, int size) {
+        long after = afterId != null ? afterId : Long.MAX_VALUE;
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Long> ids = keyword != null && !keyword.isEmpty()
+                ? studentRepository.searchIdsBefore(keyword, after, limit)
+                : studentRepository.findIdsBefore(after, limit);
+
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+        PageResponse<StudentDTO> response = new PageResponse<>(findByIds(ids), -1, -1, size, -1);
+        response.setHasNext(hasNext);
+        response.setNextCursor(hasNext ? PageCursor.encode(ids.get(ids.size() - 1)) : null);
+        return response;
+    }
+
+    /**
+     * 按 ID 列表组装分页结果：一次 pipeline 批量读取学生 Hash，只有未命中的学生回源数据库并回写
+     *
+     * @param totalElements 缓存的总数，-1 表示 slice 模式（不返回总数）
+     */
+    private PageResponse<StudentDTO> toPageResponse(StudentIdPage idPage, long totalElements) {
+        int totalPages = totalElements < 0 ? -1
+                : (int) ((totalElements + idPage.getSize() - 1) / idPage.getSize());
+        PageResponse<StudentDTO> response = new PageResponse<>(
+                findByIds(idPage.getIds()),
+                totalElements,
+                totalPages,
+                idPage.getSize(),
+                idPage.getNumber()
+        );
+        response.setHasNext(idPage.isHasNext());
+        // 列表固定按 ID 倒序，老客户端也可以从任意一页切换到游标分页
+        List<Long> ids = idPage.getIds();
+        if (!ids.isEmpty() && idPage.isHasNext()) {
+            response.setNextCursor(PageCursor.encode(ids.get(ids.size() - 1)));
+        }
+        return response;
+    }
+
+    /**
+     * 批量获取学生，保持传入的 ID 顺序，已删除的学生会被跳过。
+     * 固定最多一次 Redis pipeline + 一条 SQL，与页大小无关
+     */
+    public List<StudentDTO> findByIds(List<Long> ids) {
+        Map<Long, StudentDTO> students = new HashMap<>(redisCacheService.getStudentsFromHash(ids));
+
+        List<Long> missing = ids.stream().filter(id -> !students.containsKey(id)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            List<StudentDTO> loaded = studentRepository.findDTOsByIds(missing);
+            redisCacheService.cacheStudentHashes(loaded);
+            loaded.forEach(student -> students.put(student.getId(), student));
+        }
+
+        List<StudentDTO> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            StudentDTO student = students.get(id);
+            if (student != null) {
+                result.add(student);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 在事务提交后执行（缓存失效必须晚于提交，否则并发读取可能把旧数据重新写回缓存）
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     /**
      * 保存学生（接收 DTO，返回 DTO）
      */
     @Transactional
-    @CacheEvict(value = "students", allEntries = true)
     public StudentDTO save(StudentDTO dto) {
         Student student;
+        boolean searchFieldsChanged = false;
+        boolean filterFieldsChanged = false;
         
         if (dto.getId() != null) {
             // 更新：先查询现有实体
             student = studentRepository.findById(dto.getId())
                     .orElseThrow(() -> new RuntimeException("学生不存在"));
+            searchFieldsChanged = !Objects.equals(student.getName(), dto.getName())
+                    || !Objects.equals(student.getStudentNo(), dto.getStudentNo())
+                    || !Objects.equals(student.getEmail(), dto.getEmail());
+            Long oldClassId = student.getStudentClass() != null ? student.getStudentClass().getId() : null;
+            filterFieldsChanged = !Objects.equals(student.getGender(), dto.getGender())
+                    || !Objects.equals(student.getBirthDate(), dto.getBirthDate())
+                    || (dto.getClassId() != null && !Objects.equals(oldClassId, dto.getClassId()));
             // 更新属性
             BeanUtils.copyProperties(dto, student, "id", "classId", "className", "createdAt");
             
@@ -148,8 +353,29 @@ public class StudentService {
             student = convertToEntity(dto);
         }
         
-        Student saved = studentRepository.save(student);
+        // flush 后 @PrePersist/@PreUpdate 已设置时间戳，DTO 与数据库一致
+        Student saved = studentRepository.saveAndFlush(student);
         StudentDTO savedDTO = convertToDTO(saved);
+
+        Long savedId = saved.getId();
+        if (dto.getId() == null) {
+            afterCommit(() -> {
+                // 新学生不存在并发回源的旧数据，直接写入 Hash
+                redisCacheService.cacheStudentHash(savedDTO);
+                redisCacheService.clearStudentMissing(savedId);
+                studentCacheIndex.evictForMembershipChange();
+                studentEventPublisher.publish(StudentChangedEvent.Type.CREATED, List.of(savedId));
+            });
+        } else {
+            boolean evictSearches = searchFieldsChanged;
+            boolean evictFilters = filterFieldsChanged;
+            afterCommit(() -> {
+                // 更新后删除 Hash 而不是回写：提交前开始的回源可能随后写入旧数据，删除后由下次读取重新加载
+                redisCacheService.deleteStudentHash(savedId);
+                studentCacheIndex.evictForUpdate(evictSearches, evictFilters);
+                studentEventPublisher.publish(StudentChangedEvent.Type.UPDATED, List.of(savedId));
+            });
+        }
         
         // 如果是新增学生，尝试发送 Kafka 消息，并记录发送状态
         if (dto.getId() == null) {
@@ -186,11 +412,15 @@ public class StudentService {
      * 根据ID删除学生
      */
     @Transactional
-    @CacheEvict(value = "students", allEntries = true)
     public void deleteById(Long id) {
         if (!studentRepository.existsById(id)) {
             throw new RuntimeException("学生不存在");
         }
         studentRepository.deleteById(id);
+        afterCommit(() -> {
+            redisCacheService.deleteStudentHash(id);
+            studentCacheIndex.evictForMembershipChange();
+            studentEventPublisher.publish(StudentChangedEvent.Type.DELETED, List.of(id));
+        });
     }
 }
\ No newline at end of file
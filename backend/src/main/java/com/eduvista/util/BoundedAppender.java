@@ -0,0 +1,57 @@
+package com.eduvista.util;
+
+/**
+ * 有长度上限的 StringBuilder：达到上限后不再追加（而不是先拼完整字符串再截断），结果末尾以 "..." 标记截断
+ */
+public class BoundedAppender {
+
+    private static final String ELLIPSIS = "...";
+
+    private final StringBuilder builder;
+    private final int limit;
+    private boolean truncated;
+
+    /**
+     * @param maxLength 结果（含截断标记）的最大长度
+     */
+    public BoundedAppender(int maxLength) {
+        this.limit = Math.max(0, maxLength - ELLIPSIS.length());
+        this.builder = new StringBuilder(Math.min(limit, 128));
+    }
+
+    public boolean isFull() {
+        return truncated;
+    }
+
+    public BoundedAppender append(CharSequence text) {
+        if (truncated) {
+            return this;
+        }
+        CharSequence value = text == null ? "null" : text;
+        int remaining = limit - builder.length();
+        if (value.length() <= remaining) {
+            builder.append(value);
+        } else {
+            builder.append(value, 0, remaining);
+            truncated = true;
+        }
+        return this;
+    }
+
+    public BoundedAppender append(char c) {
+        if (truncated) {
+            return this;
+        }
+        if (builder.length() < limit) {
+            builder.append(c);
+        } else {
+            truncated = true;
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return truncated ? builder + ELLIPSIS : builder.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.eduvista.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 简单的 CSV 读写（RFC 4180 子集）：支持双引号包裹的字段和 "" 转义，解析时不支持字段内换行
+ */
+public final class CsvUtils {
+
+    private CsvUtils() {
+    }
+
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    /**
+     * 拼接一行（含换行符），包含逗号、引号或换行的字段用双引号包裹；null 写为空字段
+     */
+    public static String formatLine(Object... values) {
+        StringBuilder line = new StringBuilder(128);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            String value = values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.append("\r\n").toString();
+    }
+}
@@ -0,0 +1,186 @@
+package com.eduvista.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 纳秒延迟直方图（HDR 风格的对数-线性分桶，固定内存，无锁记录）。
+ *
+ * 0~63ns 每纳秒一档；之后每个 2 的幂区间再等分 32 档，分位数相对误差不超过 1/32；
+ * 超过 2^40ns（约18分钟）的值记入最后一档。滚动窗口由 slotCount 个时间片组成，
+ * 记录时按当前时间片写入，时间片过期后由第一个写入者清零复用；另外保留启动以来的总次数和总耗时。
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private static final class Slot {
+        final AtomicLong epoch = new AtomicLong(-1);
+        final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong max = new AtomicLong();
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts.set(i, 0);
+            }
+            count.set(0);
+            sum.set(0);
+            max.set(0);
+        }
+    }
+
+    private final Slot[] slots;
+    private final long slotMillis;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * @param slotMillis 每个时间片的长度
+     * @param slotCount  时间片个数，窗口长度 = slotMillis * slotCount
+     */
+    public LatencyHistogram(long slotMillis, int slotCount) {
+        this.slotMillis = Math.max(1, slotMillis);
+        this.slots = new Slot[Math.max(1, slotCount)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        long epoch = System.currentTimeMillis() / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        long slotEpoch = slot.epoch.get();
+        // 时间片已过期：抢到切换权的线程负责清零（清零期间并发写入的少量样本可能丢失）
+        if (slotEpoch < epoch && slot.epoch.compareAndSet(slotEpoch, epoch)) {
+            slot.reset();
+        }
+        slot.counts.incrementAndGet(indexOf(value));
+        slot.count.incrementAndGet();
+        slot.sum.addAndGet(value);
+        slot.max.accumulateAndGet(value, Math::max);
+        totalCount.increment();
+        totalNanos.add(value);
+    }
+
+    /**
+     * 启动以来的记录次数（Prometheus _count）
+     */
+    public long totalCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * 启动以来的总耗时，纳秒（Prometheus _sum）
+     */
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * 合并滚动窗口内仍然有效的时间片
+     */
+    public Snapshot snapshot() {
+        long current = System.currentTimeMillis() / slotMillis;
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (Slot slot : slots) {
+            long epoch = slot.epoch.get();
+            if (epoch < 0 || current - epoch >= slots.length) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += slot.counts.get(i);
+            }
+            count += slot.count.get();
+            sum += slot.sum.get();
+            max = Math.max(max, slot.max.get());
+        }
+        return new Snapshot(counts, count, sum, max);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        int mantissa = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_HALF + (mantissa - SUB_BUCKET_HALF);
+    }
+
+    /**
+     * 分桶内的最大值（分位数按桶上界报告，与 HdrHistogram 的 highestEquivalentValue 一致）
+     */
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int exponent = SUB_BUCKET_BITS + offset / SUB_BUCKET_HALF;
+        long mantissa = SUB_BUCKET_HALF + offset % SUB_BUCKET_HALF;
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        public long mean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * @param quantile 0~1，例如 0.99
+         * @return 纳秒；窗口内没有样本时返回 0
+         */
+        public long percentile(double quantile) {
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.eduvista.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * long 类型 key 的布隆过滤器（线程安全，无锁读写）。
+ * 只支持添加，不支持删除；mightContain 返回 false 时 key 一定不存在。
+ */
+public class LongBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+
+    public LongBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(expectedInsertions, 1);
+        // m = -n·ln(p) / (ln2)^2，k = m/n·ln2
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, m);
+        int words = (int) Math.min(Integer.MAX_VALUE, (m + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    public void add(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitSize);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * SplitMix64 混淆函数
+     */
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,197 @@
+package com.eduvista.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存 n-gram 倒排索引（线程安全，读写锁保护）。
+ *
+ * 每个字段转小写后按字切分，建立单字 + 相邻双字（bigram）倒排表，中文无需分词。
+ * 查询时对关键字的各个 gram 求倒排表交集得到候选，再对候选做子串校验（bigram 交集不保证连续），
+ * 结果与 LIKE %keyword% 一致。倒排表为有序 long 数组，每个 ID 只占 8 字节。
+ */
+public class NGramIndex {
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    /** ID -> 各字段小写文本，用于更新时移除旧 gram 和查询时的子串校验 */
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 新增或替换文档
+     */
+    public void put(long id, String... fields) {
+        String[] normalized = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            documents.put(id, normalized);
+            for (String gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询任一字段包含关键字（忽略大小写）的文档，按 ID 倒序返回 ID -> 各字段小写文本
+     */
+    public Map<Long, String[]> search(String keyword) {
+        String query = normalize(keyword);
+        if (query.isEmpty()) {
+            return Map.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (String gram : queryGrams(query)) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return Map.of();
+                }
+                lists.add(list);
+            }
+            // 从最短的倒排表开始，其余倒排表二分查找
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            Postings shortest = lists.get(0);
+
+            Map<Long, String[]> result = new LinkedHashMap<>();
+            candidates:
+            for (int i = shortest.size - 1; i >= 0; i--) {
+                long id = shortest.ids[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).contains(id)) {
+                        continue candidates;
+                    }
+                }
+                String[] fields = documents.get(id);
+                if (containsAny(fields, query)) {
+                    result.put(id, fields);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void removeInternal(long id) {
+        String[] old = documents.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old)) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String[] fields) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i < field.length(); i++) {
+                grams.add(field.substring(i, i + 1));
+                if (i + 1 < field.length()) {
+                    grams.add(field.substring(i, i + 2));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> queryGrams(String query) {
+        if (query.length() == 1) {
+            return Set.of(query);
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < query.length(); i++) {
+            grams.add(query.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    private static boolean containsAny(String[] fields, String query) {
+        for (String field : fields) {
+            if (field.contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 升序 long 数组倒排表。ID 自增，新增通常是尾部追加
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            if (size > 16 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+}
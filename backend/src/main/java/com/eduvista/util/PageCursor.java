@@ -0,0 +1,41 @@
+package com.eduvista.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 键集分页游标：对客户端不透明，内容为上一页最后一条记录的 ID。
+ * 格式：Base64Url("v1:" + id)，带版本前缀便于以后扩展排序字段。
+ */
+public final class PageCursor {
+
+    private static final String VERSION_PREFIX = "v1:";
+
+    private PageCursor() {
+    }
+
+    public static String encode(long lastId) {
+        byte[] raw = (VERSION_PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * 解析游标；空字符串表示从第一页开始，返回 null
+     *
+     * @throws IllegalArgumentException 游标格式非法
+     */
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(VERSION_PREFIX)) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return Long.parseLong(raw.substring(VERSION_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+}
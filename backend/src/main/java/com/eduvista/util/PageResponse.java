@@ -17,6 +17,12 @@ public class PageResponse<T> implements Serializable {
     private int totalPages;           // 总页数
     private int size;                 // 每页大小
     private int number;               // 当前页码
+    private String nextCursor;        // 下一页游标（?after= 键集分页），没有下一页时为 null
+    private Boolean hasNext;          // 是否有下一页（slice / 游标模式下不统计总数，以此判断）
+
+    public PageResponse(List<T> content, long totalElements, int totalPages, int size, int number) {
+        this(content, totalElements, totalPages, size, number, null, null);
+    }
 
     // 静态转换方法：方便从 Spring 的 Page 对象转换过来
     public static <T> PageResponse<T> of(Page<T> page) {
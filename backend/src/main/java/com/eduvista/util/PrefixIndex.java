@@ -0,0 +1,80 @@
+package com.eduvista.util;
+
+import com.eduvista.dto.StudentSuggestion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 学号/姓名前缀索引，用于搜索框自动补全。
+ *
+ * 以 "小写文本\0ID" 为 key 的跳表，前缀查询即 [prefix, prefix + '￿') 的范围扫描，取前 N 条即可停止。
+ * 每个学生两条 key（学号、姓名）共用同一个补全条目；学生数达到 maxStudents 后不再收录，内存占用有上限。
+ * 读无锁，写操作串行（写远少于读）。
+ */
+public class PrefixIndex {
+
+    private static final char SEPARATOR = '\0';
+
+    private final ConcurrentSkipListMap<String, StudentSuggestion> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, StudentSuggestion> byId = new HashMap<>();
+    private final int maxStudents;
+
+    public PrefixIndex(int maxStudents) {
+        this.maxStudents = maxStudents;
+    }
+
+    /**
+     * 新增或替换；达到容量上限时返回 false
+     */
+    public synchronized boolean put(long id, String studentNo, String name) {
+        removeInternal(id);
+        if (byId.size() >= maxStudents) {
+            return false;
+        }
+        StudentSuggestion suggestion = new StudentSuggestion(id, studentNo, name);
+        byId.put(id, suggestion);
+        entries.put(key(studentNo, id), suggestion);
+        entries.put(key(name, id), suggestion);
+        return true;
+    }
+
+    public synchronized void remove(long id) {
+        removeInternal(id);
+    }
+
+    /**
+     * 学号或姓名以 prefix 开头（忽略大小写）的前 limit 个学生，按匹配文本字典序
+     */
+    public List<StudentSuggestion> prefix(String prefix, int limit) {
+        String from = NGramIndex.normalize(prefix);
+        if (from.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<StudentSuggestion> result = new LinkedHashSet<>();
+        for (StudentSuggestion suggestion : entries.subMap(from, from + Character.MAX_VALUE).values()) {
+            result.add(suggestion);
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private void removeInternal(long id) {
+        StudentSuggestion old = byId.remove(id);
+        if (old != null) {
+            entries.remove(key(old.getStudentNo(), id));
+            entries.remove(key(old.getName(), id));
+        }
+    }
+
+    private static String key(String text, long id) {
+        return NGramIndex.normalize(text) + SEPARATOR + id;
+    }
+}
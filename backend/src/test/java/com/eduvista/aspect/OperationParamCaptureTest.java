@@ -0,0 +1,126 @@
+package com.eduvista.aspect;
+
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OperationParamCaptureTest {
+
+    private final OperationParamCapture capture = new OperationParamCapture();
+
+    public static class Account {
+        private final String username;
+        private final String password;
+
+        public Account(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class Endpoints {
+        void create(String name, String password, MultipartFile file, byte[] data, int age) {
+        }
+
+        void login(Account account, String refreshToken) {
+        }
+
+        @LogParams(include = {"account.username", "account.password", "refreshToken", "missing"})
+        void update(Account account, String refreshToken) {
+        }
+
+        @LogParams(include = {"query.keyword", "query.token"})
+        void search(Map<String, Object> query) {
+        }
+
+        void upload(Object payload, List<Long> ids) {
+        }
+
+        @LogParams(maxLength = 20)
+        void note(String text) {
+        }
+    }
+
+    @Test
+    void skipsSensitiveAndBinaryParameters() {
+        MockMultipartFile file = new MockMultipartFile("file", new byte[]{1, 2});
+
+        String params = capture(method("create"), "张三", "secret", file, new byte[]{1}, 18);
+
+        assertThat(params).isEqualTo("name=张三, age=18");
+    }
+
+    @Test
+    void objectsAreLoggedByTypeOnly() {
+        String params = capture(method("login"), new Account("admin", "secret"), "t0k3n");
+
+        assertThat(params).isEqualTo("account=<Account>");
+        assertThat(params).doesNotContain("secret", "t0k3n");
+    }
+
+    @Test
+    void includedFieldsSkipSensitiveOnes() {
+        String params = capture(method("update"), new Account("admin", "secret"), "t0k3n");
+
+        assertThat(params).isEqualTo("account.username=admin");
+    }
+
+    @Test
+    void mapParametersAreReadByKey() {
+        Map<String, Object> query = new HashMap<>(Map.of("keyword", "张", "token", "t0k3n"));
+
+        assertThat(capture(method("search"), query)).isEqualTo("query.keyword=张");
+    }
+
+    @Test
+    void runtimeTypeOfWideParametersIsChecked() {
+        MockMultipartFile file = new MockMultipartFile("file", new byte[]{1});
+
+        String params = capture(method("upload"), file, new ArrayList<>(List.of(1L, 2L, 3L)));
+
+        assertThat(params).isEqualTo("ids=<ArrayList[3]>");
+    }
+
+    @Test
+    void outputIsBoundedByMaxLength() {
+        String params = capture(method("note"), "x".repeat(100));
+
+        assertThat(params).hasSize(20).endsWith("...");
+    }
+
+    private String capture(Method method, Object... args) {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getParameterNames()).thenReturn(
+                Arrays.stream(method.getParameters()).map(p -> p.getName()).toArray(String[]::new));
+        return capture.capture(signature, args);
+    }
+
+    private static Method method(String name) {
+        return Arrays.stream(Endpoints.class.getDeclaredMethods())
+                .filter(method -> method.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,81 @@
+package com.eduvista.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentCacheSerializerTest {
+
+    private final StudentCacheSerializer binary =
+            new StudentCacheSerializer(new GenericJackson2JsonRedisSerializer(), true);
+
+    private static CachedEntry entry() {
+        return new CachedEntry(new StudentIdPage(List.of(900L, 850L, 12L, 1L), 4, 3, true), 1_700_000_000_000L);
+    }
+
+    @Test
+    void cachedIdPageRoundTrip() {
+        CachedEntry entry = entry();
+        byte[] bytes = binary.serialize(entry);
+
+        assertThat(bytes[0]).isEqualTo(StudentCacheSerializer.MAGIC);
+        assertThat(binary.deserialize(bytes)).isEqualTo(entry);
+    }
+
+    @Test
+    void emptyIdPageRoundTrip() {
+        StudentIdPage page = new StudentIdPage(List.of(), 20, 5, false);
+
+        assertThat(binary.deserialize(binary.serialize(page))).isEqualTo(page);
+    }
+
+    @Test
+    void otherTypesFallBackToJson() {
+        Map<String, Object> value = new HashMap<>(Map.of("total", 3));
+        byte[] bytes = binary.serialize(value);
+
+        assertThat(bytes[0]).isNotEqualTo(StudentCacheSerializer.MAGIC);
+        assertThat(binary.deserialize(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void unknownVersionIsTreatedAsMiss() {
+        byte[] bytes = binary.serialize(entry());
+        bytes[1] = (byte) (StudentCacheSerializer.FORMAT_VERSION + 1);
+
+        assertThat(binary.deserialize(bytes)).isNull();
+    }
+
+    @Test
+    void retiredTypeIsTreatedAsMiss() {
+        // 类型 1：旧版本整页缓存写入的 StudentDTO
+        byte[] bytes = {StudentCacheSerializer.MAGIC, StudentCacheSerializer.FORMAT_VERSION, 1, 0};
+
+        assertThat(binary.deserialize(bytes)).isNull();
+    }
+
+    @Test
+    void truncatedValueIsTreatedAsMiss() {
+        byte[] bytes = binary.serialize(entry());
+
+        assertThat(binary.deserialize(Arrays.copyOf(bytes, bytes.length - 3))).isNull();
+    }
+
+    @Test
+    void writesJsonWhenBinaryFormatDisabled() {
+        StudentCacheSerializer jsonOnly = new StudentCacheSerializer(new GenericJackson2JsonRedisSerializer(), false);
+        CachedEntry entry = new CachedEntry(new StudentIdPage(List.of(3L, 2L), 2, 0, false), 123L);
+
+        byte[] bytes = jsonOnly.serialize(entry);
+
+        assertThat(bytes[0]).isNotEqualTo(StudentCacheSerializer.MAGIC);
+        // 开关关闭的节点写入的 JSON，开启二进制写入的节点也能读取
+        assertThat(binary.deserialize(bytes)).isEqualTo(entry);
+    }
+}
@@ -0,0 +1,159 @@
+package com.eduvista.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheTest {
+
+    private static final String CHANNEL = "cache:invalidate";
+
+    /**
+     * L2 替身：记录读取次数，可在读取时执行一次回调（模拟读 L2 期间到达的失效）
+     */
+    private static class RemoteCache extends ConcurrentMapCache {
+        final AtomicInteger reads = new AtomicInteger();
+        Runnable duringRead;
+
+        RemoteCache() {
+            super("students", false);
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            reads.incrementAndGet();
+            ValueWrapper value = super.get(key);
+            if (duringRead != null) {
+                Runnable hook = duringRead;
+                duringRead = null;
+                hook.run();
+            }
+            return value;
+        }
+    }
+
+    private final RemoteCache remote = new RemoteCache();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private TwoLevelCacheManager manager;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        RedisCacheManager redisCacheManager = mock(RedisCacheManager.class);
+        when(redisCacheManager.getCache("students")).thenReturn(remote);
+        manager = new TwoLevelCacheManager(redisCacheManager, redisTemplate, CHANNEL, 100, Duration.ofMinutes(1));
+        cache = (TwoLevelCache) manager.getCache("students");
+    }
+
+    @Test
+    void readFillsL1() {
+        remote.put("k", "v1");
+
+        assertThat(cache.get("k").get()).isEqualTo("v1");
+        assertThat(cache.get("k").get()).isEqualTo("v1");
+        assertThat(remote.reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void evictClearsBothLevelsAndBroadcasts() {
+        cache.put("k", "v1");
+        cache.evict("k");
+
+        assertThat(remote.get("k")).isNull();
+        assertThat(cache.get("k")).isNull();
+        assertThat(published()).endsWith("|E|students|k");
+    }
+
+    @Test
+    void evictAllBroadcastsOneMessage() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.evictAll(List.of("a", "b"));
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(published()).endsWith("|M|students|a\u001Fb");
+    }
+
+    @Test
+    void remoteEvictMessageClearsL1() {
+        cache.put("k", "v1");
+        remote.put("k", "v2");
+        assertThat(cache.get("k").get()).isEqualTo("v1");
+
+        deliver("other-node|E|students|k");
+
+        assertThat(cache.get("k").get()).isEqualTo("v2");
+    }
+
+    @Test
+    void remoteEvictAllAndClearMessagesClearL1() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        remote.put("a", "1'");
+        remote.put("b", "2'");
+        remote.put("c", "3'");
+
+        deliver("other-node|M|students|a\u001Fb");
+        assertThat(cache.get("a").get()).isEqualTo("1'");
+        assertThat(cache.get("b").get()).isEqualTo("2'");
+        assertThat(cache.get("c").get()).isEqualTo("3");
+
+        deliver("other-node|C|students");
+        assertThat(cache.get("c").get()).isEqualTo("3'");
+    }
+
+    @Test
+    void ownMessagesAreIgnored() {
+        cache.put("k", "v1");
+        String own = published();
+        remote.put("k", "v2");
+
+        deliver(own);
+
+        assertThat(cache.get("k").get()).isEqualTo("v1");
+    }
+
+    @Test
+    void fillRacingWithInvalidationIsDropped() {
+        remote.put("k", "old");
+        // 读 L2 拿到旧值后，其他节点更新了 L2 并广播失效，随后本节点才回填 L1
+        remote.duringRead = () -> {
+            remote.put("k", "new");
+            deliver("other-node|E|students|k");
+        };
+
+        assertThat(cache.get("k").get()).isEqualTo("old");
+        assertThat(cache.get("k").get()).isEqualTo("new");
+        assertThat(remote.reads.get()).isEqualTo(2);
+    }
+
+    private String published() {
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, atLeastOnce()).convertAndSend(eq(CHANNEL), message.capture());
+        return message.getValue();
+    }
+
+    private void deliver(String body) {
+        manager.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+}
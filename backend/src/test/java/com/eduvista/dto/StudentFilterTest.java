@@ -0,0 +1,67 @@
+package com.eduvista.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentFilterTest {
+
+    @Test
+    void blankValuesAreUnset() {
+        StudentFilter filter = StudentFilter.of(null, "  ", null, null, "", null);
+
+        assertThat(filter.getGender()).isNull();
+        assertThat(filter.getKeyword()).isNull();
+        assertThat(filter.getSort()).isEqualTo(StudentFilter.DEFAULT_SORT);
+        assertThat(filter.isStructured()).isFalse();
+        assertThat(filter.cacheKey()).isEqualTo("s=id,desc");
+    }
+
+    @Test
+    void equivalentInputsNormalizeToSameKey() {
+        StudentFilter a = StudentFilter.of(3L, " 男 ", null, null, " 张 ", " name ");
+        StudentFilter b = StudentFilter.of(3L, "男", null, null, "张", "name,ASC");
+
+        assertThat(a).isEqualTo(b);
+        assertThat(a.cacheKey()).isEqualTo(b.cacheKey()).isEqualTo("c=3|g=男|s=name,asc|k=张");
+    }
+
+    @Test
+    void cacheKeyHasFixedFieldOrderAndOpenRanges() {
+        StudentFilter from = StudentFilter.of(null, null, LocalDate.of(2005, 1, 1), null, null, "birthDate,desc");
+        StudentFilter to = StudentFilter.of(null, null, null, LocalDate.of(2006, 12, 31), null, null);
+
+        assertThat(from.cacheKey()).isEqualTo("b=2005-01-01..|s=birthDate,desc");
+        assertThat(to.cacheKey()).isEqualTo("b=..2006-12-31|s=id,desc");
+        assertThat(from.cacheKey()).isNotEqualTo(to.cacheKey());
+    }
+
+    @Test
+    void withoutSortDropsOnlyTheSort() {
+        StudentFilter filter = StudentFilter.of(3L, null, null, null, "张", "name,desc");
+
+        assertThat(filter.withoutSort()).isEqualTo(StudentFilter.of(3L, null, null, null, "张", null));
+    }
+
+    @Test
+    void nonIdSortAddsIdTieBreaker() {
+        assertThat(StudentFilter.of(null, null, null, null, null, "name,asc").toSort())
+                .isEqualTo(Sort.by(Sort.Order.asc("name"), Sort.Order.desc("id")));
+        assertThat(StudentFilter.of(null, null, null, null, null, null).toSort())
+                .isEqualTo(Sort.by(Sort.Order.desc("id")));
+    }
+
+    @Test
+    void rejectsUnsupportedSortAndReversedRange() {
+        assertThatThrownBy(() -> StudentFilter.of(null, null, null, null, null, "password"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StudentFilter.of(null, null, null, null, null, "name,up"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StudentFilter.of(null, null, LocalDate.of(2006, 1, 1), LocalDate.of(2005, 1, 1), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.eduvista.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyMetricsServiceTest {
+
+    private final LatencyMetricsService service = new LatencyMetricsService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "window", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(service, "slots", 6);
+    }
+
+    @Test
+    void prometheusSummaryLines() {
+        for (int i = 0; i < 3; i++) {
+            service.record("StudentController.list", 200, 2_000_000);
+        }
+        service.record("StudentController.list", 500, 5_000_000);
+
+        String output = service.prometheus();
+
+        assertThat(output).contains("# TYPE http_server_requests_seconds summary\n");
+        assertThat(output).contains(
+                "http_server_requests_seconds{handler=\"StudentController.list\",status=\"200\",quantile=\"0.5\"} 0.002000000\n");
+        assertThat(output).contains(
+                "http_server_requests_seconds{handler=\"StudentController.list\",status=\"200\",quantile=\"0.999\"} 0.002000000\n");
+        assertThat(output).contains(
+                "http_server_requests_seconds_count{handler=\"StudentController.list\",status=\"200\"} 3\n");
+        assertThat(output).contains(
+                "http_server_requests_seconds_sum{handler=\"StudentController.list\",status=\"200\"} 0.006000000\n");
+        assertThat(output).contains("# TYPE http_server_requests_seconds_max gauge\n");
+        assertThat(output).contains(
+                "http_server_requests_seconds_max{handler=\"StudentController.list\",status=\"500\"} 0.005000000\n");
+        // 200 排在 500 之前
+        assertThat(output.indexOf("status=\"200\"")).isLessThan(output.indexOf("status=\"500\""));
+    }
+
+    @Test
+    void prometheusEscapesLabelValues() {
+        service.record("a\"b\\c", 200, 1_000);
+
+        assertThat(service.prometheus()).contains("handler=\"a\\\"b\\\\c\"");
+    }
+
+    @Test
+    void latencySummaryInMillis() {
+        service.record("StudentController.get", 200, 1_500_000);
+
+        assertThat(service.latencySummary()).singleElement().satisfies(row -> {
+            assertThat(row).containsEntry("handler", "StudentController.get");
+            assertThat(row).containsEntry("status", 200);
+            assertThat(row).containsEntry("count", 1L);
+            assertThat(row).containsEntry("p50", 1.5);
+            assertThat(row).containsEntry("max", 1.5);
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.eduvista.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedAppenderTest {
+
+    @Test
+    void shortTextIsNotTruncated() {
+        BoundedAppender out = new BoundedAppender(20);
+        out.append("id=").append('1').append(", name=").append("张三");
+
+        assertThat(out.isFull()).isFalse();
+        assertThat(out.toString()).isEqualTo("id=1, name=张三");
+    }
+
+    @Test
+    void longTextIsCutToMaxLengthWithEllipsis() {
+        BoundedAppender out = new BoundedAppender(10);
+        out.append("0123456789abcdef");
+
+        assertThat(out.isFull()).isTrue();
+        assertThat(out.toString()).isEqualTo("0123456...").hasSize(10);
+    }
+
+    @Test
+    void charAppendStopsAtLimit() {
+        BoundedAppender out = new BoundedAppender(10);
+        out.append("0123456");
+        assertThat(out.isFull()).isFalse();
+
+        out.append('7');
+        assertThat(out.isFull()).isTrue();
+        assertThat(out.toString()).isEqualTo("0123456...");
+    }
+
+    @Test
+    void appendsAfterTruncationAreIgnored() {
+        BoundedAppender out = new BoundedAppender(8);
+        out.append("abcdefgh").append("ijk").append('l');
+
+        assertThat(out.toString()).isEqualTo("abcde...");
+    }
+
+    @Test
+    void nullIsWrittenAsText() {
+        assertThat(new BoundedAppender(20).append((CharSequence) null).toString()).isEqualTo("null");
+    }
+}
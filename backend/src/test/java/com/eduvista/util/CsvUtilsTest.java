@@ -0,0 +1,39 @@
+package com.eduvista.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvUtilsTest {
+
+    @Test
+    void parsesPlainFieldsAndTrims() {
+        assertThat(CsvUtils.parseLine("2024001, 张三 ,男")).containsExactly("2024001", "张三", "男");
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertThat(CsvUtils.parseLine("a,,c,")).containsExactly("a", "", "c", "");
+        assertThat(CsvUtils.parseLine("")).containsExactly("");
+    }
+
+    @Test
+    void parsesQuotedFieldsWithCommasAndEscapedQuotes() {
+        assertThat(CsvUtils.parseLine("1,\"北京市,海淀区\",\"say \"\"hi\"\"\""))
+                .containsExactly("1", "北京市,海淀区", "say \"hi\"");
+    }
+
+    @Test
+    void formatsWithCrlfAndQuotesOnlyWhenNeeded() {
+        assertThat(CsvUtils.formatLine("a", 1, null, "b,c", "say \"hi\"", "x\ny"))
+                .isEqualTo("a,1,,\"b,c\",\"say \"\"hi\"\"\",\"x\ny\"\r\n");
+    }
+
+    @Test
+    void formatThenParseRoundTrip() {
+        String line = CsvUtils.formatLine("2024001", "张三", "北京市,海淀区", "\"quoted\"");
+
+        assertThat(CsvUtils.parseLine(line.substring(0, line.length() - 2)))
+                .containsExactly("2024001", "张三", "北京市,海淀区", "\"quoted\"");
+    }
+}
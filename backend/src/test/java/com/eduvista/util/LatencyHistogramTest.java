@@ -0,0 +1,98 @@
+package com.eduvista.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveOneBucketPerNanosecond() {
+        for (long value = 0; value < 64; value++) {
+            assertThat(LatencyHistogram.indexOf(value)).isEqualTo((int) value);
+            assertThat(LatencyHistogram.upperBoundOf((int) value)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void bucketsAreContiguous() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT - 1; i++) {
+            long upper = LatencyHistogram.upperBoundOf(i);
+            assertThat(LatencyHistogram.indexOf(upper)).isEqualTo(i);
+            assertThat(LatencyHistogram.indexOf(upper + 1)).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    void upperBoundIsWithinRelativeError() {
+        for (long value = 1; value < (1L << 40); value = value * 3 / 2 + 1) {
+            long upper = LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(value));
+            assertThat(upper).isGreaterThanOrEqualTo(value);
+            assertThat(upper - value).isLessThanOrEqualTo(value / 32);
+        }
+    }
+
+    @Test
+    void hugeValuesGoToLastBucket() {
+        assertThat(LatencyHistogram.indexOf(1L << 40)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+        assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+        assertThat(LatencyHistogram.upperBoundOf(LatencyHistogram.BUCKET_COUNT - 1)).isEqualTo((1L << 40) - 1);
+    }
+
+    @Test
+    void emptySnapshotReportsZero() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram(60_000, 5).snapshot();
+
+        assertThat(snapshot.count()).isZero();
+        assertThat(snapshot.mean()).isZero();
+        assertThat(snapshot.max()).isZero();
+        assertThat(snapshot.percentile(0.99)).isZero();
+    }
+
+    @Test
+    void exactPercentilesForSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram(60_000, 5);
+        // 64ns 以下每纳秒一档，分位数没有分桶误差
+        for (long value = 1; value <= 60; value++) {
+            histogram.record(value);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(60);
+        assertThat(snapshot.mean()).isEqualTo(30);
+        assertThat(snapshot.max()).isEqualTo(60);
+        assertThat(snapshot.percentile(0.5)).isEqualTo(30);
+        assertThat(snapshot.percentile(0.9)).isEqualTo(54);
+        assertThat(snapshot.percentile(0.99)).isEqualTo(60);
+        assertThat(histogram.totalCount()).isEqualTo(60);
+        assertThat(histogram.totalNanos()).isEqualTo(1830);
+    }
+
+    @Test
+    void percentilesOfLargeValuesStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram(60_000, 5);
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000_000L + i * 10_000L;
+            histogram.record(values[i]);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        for (double quantile : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            assertThat(snapshot.percentile(quantile))
+                    .isGreaterThanOrEqualTo(exact)
+                    .isLessThanOrEqualTo(exact + exact / 32);
+        }
+        assertThat(snapshot.percentile(1.0)).isEqualTo(values[values.length - 1]);
+    }
+
+    @Test
+    void negativeValuesAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram(60_000, 5);
+        histogram.record(-5);
+
+        assertThat(histogram.snapshot().percentile(0.5)).isZero();
+        assertThat(histogram.totalNanos()).isZero();
+    }
+}
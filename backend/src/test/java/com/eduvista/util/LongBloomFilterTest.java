@@ -0,0 +1,40 @@
+package com.eduvista.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongBloomFilterTest {
+
+    @Test
+    void addedKeysAreAlwaysFound() {
+        LongBloomFilter filter = new LongBloomFilter(10_000, 0.01);
+        LongStream.rangeClosed(1, 10_000).parallel().forEach(filter::add);
+
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(filter.mightContain(id)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsNearConfigured() {
+        LongBloomFilter filter = new LongBloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.add(id);
+        }
+
+        long falsePositives = LongStream.rangeClosed(1_000_001, 1_100_000).filter(filter::mightContain).count();
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        LongBloomFilter filter = new LongBloomFilter(0, 0.01);
+
+        assertThat(filter.mightContain(0)).isFalse();
+        assertThat(filter.mightContain(-1)).isFalse();
+        assertThat(filter.mightContain(Long.MAX_VALUE)).isFalse();
+    }
+}
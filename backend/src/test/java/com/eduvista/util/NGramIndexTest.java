@@ -0,0 +1,71 @@
+package com.eduvista.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NGramIndexTest {
+
+    @Test
+    void matchesSubstringOfAnyFieldIgnoringCase() {
+        NGramIndex index = new NGramIndex();
+        index.put(1, "张三", "2024001", "ZhangSan@Example.com");
+        index.put(2, "李四", "2024002", "lisi@example.com");
+
+        assertThat(index.search("三").keySet()).containsExactly(1L);
+        assertThat(index.search("zhangsan@").keySet()).containsExactly(1L);
+        assertThat(index.search("2024").keySet()).containsExactly(2L, 1L);
+        assertThat(index.search("  LISI ").keySet()).containsExactly(2L);
+        assertThat(index.search("王五")).isEmpty();
+    }
+
+    @Test
+    void returnsNormalizedFields() {
+        NGramIndex index = new NGramIndex();
+        index.put(1, "Tom", "S001", null);
+
+        assertThat(index.search("tom").get(1L)).containsExactly("tom", "s001", "");
+    }
+
+    @Test
+    void bigramsMustBeContiguous() {
+        NGramIndex index = new NGramIndex();
+        // 同时含 ab、bc 两个 bigram，但不含 abc
+        index.put(1, "abxbc");
+        index.put(2, "xabcx");
+
+        assertThat(index.search("abc").keySet()).containsExactly(2L);
+    }
+
+    @Test
+    void replaceAndRemove() {
+        NGramIndex index = new NGramIndex();
+        index.put(1, "张三");
+        index.put(1, "李四");
+
+        assertThat(index.search("张")).isEmpty();
+        assertThat(index.search("李四").keySet()).containsExactly(1L);
+
+        index.remove(1);
+        assertThat(index.search("李")).isEmpty();
+    }
+
+    @Test
+    void resultsAreInDescendingIdOrder() {
+        NGramIndex index = new NGramIndex();
+        index.put(5, "abc");
+        index.put(1, "abc");
+        index.put(3, "abc");
+
+        assertThat(index.search("ab").keySet()).containsExactly(5L, 3L, 1L);
+    }
+
+    @Test
+    void blankKeywordMatchesNothing() {
+        NGramIndex index = new NGramIndex();
+        index.put(1, "abc");
+
+        assertThat(index.search("  ")).isEmpty();
+        assertThat(index.search(null)).isEmpty();
+    }
+}
@@ -0,0 +1,41 @@
+package com.eduvista.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void roundTrip() {
+        for (long id : new long[]{0, 1, 123_456_789L, Long.MAX_VALUE}) {
+            assertThat(PageCursor.decode(PageCursor.encode(id))).isEqualTo(id);
+        }
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        assertThat(PageCursor.encode(Long.MAX_VALUE)).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void emptyCursorMeansFirstPage() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode("")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> PageCursor.decode("!!!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encodeRaw("123"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encodeRaw("v1:abc"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,65 @@
+package com.eduvista.util;
+
+import com.eduvista.dto.StudentSuggestion;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    @Test
+    void matchesStudentNoOrNamePrefixIgnoringCase() {
+        PrefixIndex index = new PrefixIndex(100);
+        index.put(1, "S2024001", "Alice");
+        index.put(2, "S2024002", "Bob");
+
+        assertThat(index.prefix("s2024", 10)).extracting(StudentSuggestion::getId).containsExactly(1L, 2L);
+        assertThat(index.prefix("AL", 10)).extracting(StudentSuggestion::getId).containsExactly(1L);
+        assertThat(index.prefix("li", 10)).isEmpty();
+    }
+
+    @Test
+    void studentMatchedByBothFieldsAppearsOnce() {
+        PrefixIndex index = new PrefixIndex(100);
+        index.put(1, "a001", "anna");
+
+        assertThat(index.prefix("a", 10)).hasSize(1);
+    }
+
+    @Test
+    void stopsAtLimit() {
+        PrefixIndex index = new PrefixIndex(100);
+        for (long id = 1; id <= 20; id++) {
+            index.put(id, "S" + (1000 + id), "学生" + id);
+        }
+
+        assertThat(index.prefix("s", 5)).hasSize(5);
+        assertThat(index.prefix("s", 0)).isEmpty();
+        assertThat(index.prefix("", 5)).isEmpty();
+    }
+
+    @Test
+    void replaceAndRemove() {
+        PrefixIndex index = new PrefixIndex(100);
+        index.put(1, "S001", "张三");
+        index.put(1, "S001", "李四");
+
+        assertThat(index.prefix("张", 10)).isEmpty();
+        assertThat(index.prefix("李", 10)).singleElement().extracting(StudentSuggestion::getName).isEqualTo("李四");
+
+        index.remove(1);
+        assertThat(index.prefix("s", 10)).isEmpty();
+    }
+
+    @Test
+    void rejectsNewStudentsAtCapacity() {
+        PrefixIndex index = new PrefixIndex(2);
+
+        assertThat(index.put(1, "S001", "a")).isTrue();
+        assertThat(index.put(2, "S002", "b")).isTrue();
+        assertThat(index.put(3, "S003", "c")).isFalse();
+        // 已收录的学生仍可更新
+        assertThat(index.put(2, "S002", "bb")).isTrue();
+        assertThat(index.prefix("s00", 10)).extracting(StudentSuggestion::getId).containsExactly(1L, 2L);
+    }
+}
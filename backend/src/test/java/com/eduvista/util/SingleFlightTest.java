@@ -0,0 +1,107 @@
+package com.eduvista.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute("k", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "v";
+            })));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("k", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            // 等其余调用者进入等待后再放行
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void exceptionIsSharedAndRethrown() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute("k", () -> {
+                loading.countDown();
+                await(release);
+                throw new IllegalStateException("学生不存在");
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> second = executor.submit(() -> singleFlight.execute("k", () -> "unused"));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("学生不存在");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void finishedLoadIsNotReused() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("k", () -> "v" + loads.incrementAndGet());
+        assertThatThrownBy(() -> singleFlight.execute("k", () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.execute("k", () -> "v" + loads.incrementAndGet())).isEqualTo("v3");
+    }
+
+    @Test
+    void differentKeysLoadIndependently() {
+        assertThat(singleFlight.execute("a", () -> "1")).isEqualTo("1");
+        assertThat(singleFlight.execute("b", () -> "2")).isEqualTo("2");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}